@@ -24,8 +24,10 @@
 package tools.devnull.robobundle;
 
 import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.calc.Trigonometry;
 import tools.devnull.robobundle.event.BulletFiredEvent;
 import tools.devnull.robobundle.event.DefaultEventRegistry;
+import tools.devnull.robobundle.event.EventKey;
 import tools.devnull.robobundle.event.EnemyScannedEvent;
 import tools.devnull.robobundle.event.EventRegistry;
 import tools.devnull.robobundle.parts.Body;
@@ -36,11 +38,14 @@ import tools.devnull.robobundle.parts.gun.DefaultGun;
 import tools.devnull.robobundle.parts.radar.DefaultRadar;
 import tools.devnull.robobundle.plugin.DefaultBotStatistics;
 import tools.devnull.robobundle.util.Drawer;
+import tools.devnull.robobundle.util.LogBuffer;
 import robocode.*;
 
 import java.awt.*;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 
-import static tools.devnull.robobundle.event.Events.*;
+import static tools.devnull.robobundle.event.EventKey.*;
 
 /**
  * A base class that provides a default abstraction to creating first class robots.
@@ -61,10 +66,38 @@ public abstract class BaseBot extends AdvancedRobot implements Bot {
 
     private Radar radar;
 
-    private EventRegistry eventRegistry = new DefaultEventRegistry(this);
+    private LogLevel logLevel = LogLevel.INFO;
+
+    private final LogBuffer logBuffer = new LogBuffer(256);
+
+    private EventRegistry eventRegistry = createEventRegistry();
 
     private boolean roundEnded = false;
 
+    /**
+     * Creates the registry used to dispatch the events. This is called while the bot is
+     * being constructed, so it must not depend on any state of the subclasses.
+     * <p/>
+     * Override this method to enable the {@link DefaultEventRegistry#profileListeners()
+     * listener profiling}, for example.
+     */
+    protected EventRegistry createEventRegistry() {
+        return new DefaultEventRegistry(this).compileListeners();
+    }
+
+    /**
+     * Sets the implementation of the trigonometric functions used by the calculations.
+     * The default is {@link Trigonometry#EXACT}.
+     * <p/>
+     * The choice is shared by every instance of the robot, so call this once at the
+     * beginning of <code>run()</code>, before configuring the parts.
+     *
+     * @param trigonometry the implementation to use
+     */
+    public void useTrigonometry(Trigonometry trigonometry) {
+        Trigonometry.use(trigonometry);
+    }
+
     protected Gun createGun() {
         return new DefaultGun(this);
     }
@@ -123,15 +156,40 @@ public abstract class BaseBot extends AdvancedRobot implements Bot {
      * default behaviour.
      * <p/>
      * By default, this method maintains a loop until the round ends and, for each step,
-     * calls {@link #onNextTurn()} and sends a {@link tools.devnull.robobundle.event.Events#NEXT_TURN}
-     * event.
+     * calls {@link #onNextTurn()}, sends a {@link tools.devnull.robobundle.event.Events#NEXT_TURN}
+     * event and {@link EventRegistry#flush() flushes} the deferred events. The step is
+     * surrounded by the {@link tools.devnull.robobundle.event.Events#TURN_STARTED} and
+     * {@link tools.devnull.robobundle.event.Events#TURN_ENDED} events.
      */
     protected void onRoundStarted() {
         while (!roundEnded) {
+            broadcast(TURN_STARTED);
             onNextTurn();
             broadcast(NEXT_TURN);
+            eventRegistry.flush();
+            flushLog();
+            broadcast(TURN_ENDED);
             execute();
         }
+        flushLog();
+    }
+
+    /**
+     * Sets the minimum level of the messages that will be logged. The default level is
+     * {@link LogLevel#INFO}.
+     *
+     * @param logLevel the minimum level of the logged messages
+     */
+    public void setLogLevel(LogLevel logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    /**
+     * Writes the buffered log messages in the robot's output stream. Messages are buffered
+     * to write them once per turn.
+     */
+    protected void flushLog() {
+        logBuffer.flushTo(out);
     }
 
     /**
@@ -186,13 +244,28 @@ public abstract class BaseBot extends AdvancedRobot implements Bot {
 
     @Override
     public void log(Object message, Object... params) {
-        out.printf(message.toString(), params);
-        out.println();
+        log(LogLevel.INFO, message, params);
+    }
+
+    @Override
+    public void log(LogLevel level, Object message, Object... params) {
+        if (logLevel.allows(level)) {
+            logBuffer.add(String.format(message.toString(), params));
+        }
     }
 
     @Override
     public void log(Throwable throwable) {
-        throwable.printStackTrace(out);
+        if (logLevel.allows(LogLevel.ERROR)) {
+            StringWriter stackTrace = new StringWriter();
+            throwable.printStackTrace(new PrintWriter(stackTrace));
+            logBuffer.add(stackTrace.toString().trim());
+        }
+    }
+
+    @Override
+    public boolean isLogging(LogLevel level) {
+        return logLevel.allows(level);
     }
 
     @Override
@@ -262,11 +335,18 @@ public abstract class BaseBot extends AdvancedRobot implements Bot {
     public final void onRoundEnded(RoundEndedEvent event) {
         roundEnded = true;
         eventRegistry.send(ROUND_ENDED, event);
+        flushLog();
+    }
+
+    @Override
+    public final void onSkippedTurn(SkippedTurnEvent event) {
+        eventRegistry.send(SKIPPED_TURN, event);
     }
 
     @Override
     public final void onBattleEnded(BattleEndedEvent event) {
         eventRegistry.send(BATTLE_ENDED);
+        flushLog();
     }
 
     @Override
@@ -275,8 +355,39 @@ public abstract class BaseBot extends AdvancedRobot implements Bot {
         return plugin;
     }
 
+    @Override
+    public final <E> E plugUntilRoundEnds(E plugin) {
+        eventRegistry.registerUntilRoundEnds(plugin);
+        return plugin;
+    }
+
+    @Override
+    public final void unplug(Object plugin) {
+        eventRegistry.unregister(plugin);
+    }
+
     @Override
     public void broadcast(String eventName, Object... args) {
         eventRegistry.send(eventName, args);
     }
+
+    @Override
+    public void broadcast(EventKey key, Object... args) {
+        eventRegistry.send(key, args);
+    }
+
+    @Override
+    public void broadcast(EventKey key) {
+        eventRegistry.send(key);
+    }
+
+    @Override
+    public void broadcast(EventKey key, Object arg) {
+        eventRegistry.send(key, arg);
+    }
+
+    @Override
+    public void broadcast(EventKey key, Object arg1, Object arg2) {
+        eventRegistry.send(key, arg1, arg2);
+    }
 }
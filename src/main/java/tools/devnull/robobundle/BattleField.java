@@ -76,15 +76,20 @@ public class BattleField implements Field {
 
   @Override
   public double diagonal() {
-    return bottomLeft().bearingTo(topRight()).distance();
+    return bottomLeft().distanceTo(topRight());
   }
 
   @Override
   public boolean isOnField(Point p) {
-    return !(p.x() < 0
-      || p.y() < 0
-      || p.x() > width
-      || p.y() > height);
+    return isOnField(p.x(), p.y());
+  }
+
+  @Override
+  public boolean isOnField(double x, double y) {
+    return !(x < 0
+      || y < 0
+      || x > width
+      || y > height);
   }
 
   @Override
@@ -113,7 +118,7 @@ public class BattleField implements Field {
     } else {
       b = new Point(p.x(), height);
     }
-    return p.bearingTo(a).distance() < p.bearingTo(b).distance() ? a : b;
+    return p.distanceSquaredTo(a) < p.distanceSquaredTo(b) ? a : b;
   }
 
 }
@@ -24,6 +24,7 @@
 package tools.devnull.robobundle;
 
 import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.event.EventKey;
 import tools.devnull.robobundle.parts.Body;
 import tools.devnull.robobundle.parts.Gun;
 import tools.devnull.robobundle.parts.Radar;
@@ -74,13 +75,41 @@ public interface Bot extends Localizable {
   Radar radar();
 
   /**
-   * Logs a message in the robot's output stream
+   * Logs a message in the robot's output stream with the {@link LogLevel#INFO} level.
    *
    * @param message the message to log
    * @param params  the parameters to the message (if it is a format)
    */
   void log(Object message, Object... params);
 
+  /**
+   * Logs a message in the robot's output stream. The message is only formatted if the
+   * given level is {@link #isLogging(LogLevel) enabled}.
+   * <p/>
+   * The default implementation logs every message through {@link #log(Object,
+   * Object...)}.
+   *
+   * @param level   the level of the message
+   * @param message the message to log
+   * @param params  the parameters to the message (if it is a format)
+   */
+  default void log(LogLevel level, Object message, Object... params) {
+    log(message, params);
+  }
+
+  /**
+   * Checks if messages of the given level are being logged. Use this to avoid computing
+   * the parameters of messages that will not be logged.
+   * <p/>
+   * The default implementation logs every level.
+   *
+   * @param level the level to check
+   * @return <code>true</code> if the messages of the given level are being logged
+   */
+  default boolean isLogging(LogLevel level) {
+    return true;
+  }
+
   /**
    * Logs an exception in the robot's output stream
    *
@@ -97,6 +126,29 @@ public interface Bot extends Localizable {
    */
   <E> E plug(E plugin);
 
+  /**
+   * Plugs a component that will listen to events until the current round ends. The
+   * default implementation {@link #plug(Object) plugs} the component for good, for bots
+   * that cannot unplug components.
+   *
+   * @return the given plugin
+   * @see #plug(Object)
+   */
+  default <E> E plugUntilRoundEnds(E plugin) {
+    return plug(plugin);
+  }
+
+  /**
+   * Unplugs a component, so it will not listen to any event anymore.
+   * <p/>
+   * The default implementation throws an {@link UnsupportedOperationException}.
+   *
+   * @param plugin the plugin to remove
+   */
+  default void unplug(Object plugin) {
+    throw new UnsupportedOperationException("This bot cannot unplug components");
+  }
+
   /**
    * Sends an event to the listeners
    *
@@ -105,6 +157,48 @@ public interface Bot extends Localizable {
    */
   void broadcast(String eventName, Object... args);
 
+  /**
+   * Sends an event to the listeners using its {@link EventKey key}. This avoids resolving
+   * the event name on every broadcast. The default implementation broadcasts the event
+   * by its name.
+   *
+   * @param key  the event key
+   * @param args the event parameters
+   */
+  default void broadcast(EventKey key, Object... args) {
+    broadcast(key.name(), args);
+  }
+
+  /**
+   * Sends an event without parameters to the listeners.
+   *
+   * @param key the event key
+   */
+  default void broadcast(EventKey key) {
+    broadcast(key.name());
+  }
+
+  /**
+   * Sends an event with a single parameter to the listeners.
+   *
+   * @param key the event key
+   * @param arg the event parameter
+   */
+  default void broadcast(EventKey key, Object arg) {
+    broadcast(key.name(), new Object[]{arg});
+  }
+
+  /**
+   * Sends an event with two parameters to the listeners.
+   *
+   * @param key  the event key
+   * @param arg1 the first event parameter
+   * @param arg2 the second event parameter
+   */
+  default void broadcast(EventKey key, Object arg1, Object arg2) {
+    broadcast(key.name(), arg1, arg2);
+  }
+
   /**
    * Gets the statistics for this bot
    *
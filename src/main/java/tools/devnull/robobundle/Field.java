@@ -83,6 +83,19 @@ public interface Field {
    */
   boolean isOnField(Point p);
 
+  /**
+   * Checks if the given coordinates are in the field. The default implementation
+   * delegates to {@link #isOnField(Point)}, implementations should override it to avoid
+   * creating the point.
+   *
+   * @param x the <code>x</code> coordinate
+   * @param y the <code>y</code> coordinate
+   * @return <code>true</code> if the field contains the given coordinates
+   */
+  default boolean isOnField(double x, double y) {
+    return isOnField(new Point(x, y));
+  }
+
   /**
    * Returns the closest point in the border to the given point.
    * Usefull when check for an incoming wall.
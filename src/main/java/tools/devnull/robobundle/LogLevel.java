@@ -0,0 +1,65 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle;
+
+/**
+ * The levels of the messages logged by a {@link Bot}.
+ *
+ * @author Marcelo Guimarães
+ */
+public enum LogLevel {
+
+  /**
+   * Detailed messages about the robot's decisions. Usually logged on every turn.
+   */
+  DEBUG,
+  /**
+   * Messages that are worth reading after a battle.
+   */
+  INFO,
+  /**
+   * Messages about something that did not work as expected.
+   */
+  WARNING,
+  /**
+   * Messages about errors.
+   */
+  ERROR,
+  /**
+   * Disables every message.
+   */
+  OFF;
+
+  /**
+   * Checks if a message of the given level should be logged when this is the minimum
+   * level.
+   *
+   * @param level the level of the message
+   * @return <code>true</code> if the message should be logged
+   */
+  public boolean allows(LogLevel level) {
+    return level != OFF && level.ordinal() >= ordinal();
+  }
+
+}
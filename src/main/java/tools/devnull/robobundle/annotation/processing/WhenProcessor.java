@@ -0,0 +1,236 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.annotation.processing;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@link tools.devnull.robobundle.event.ListenerBinding} for every class that
+ * has methods annotated with {@link tools.devnull.robobundle.annotation.When}, including
+ * the inherited ones. Registering a listener with a generated binding does not require
+ * scanning its methods through reflection.
+ * <p/>
+ * Private, abstract, local and anonymous classes are skipped and will be registered
+ * through reflection. So are the classes that only inherit their listener methods when
+ * they are compiled without any class that uses the annotation.
+ *
+ * @author Marcelo Guimarães
+ */
+@SupportedAnnotationTypes(WhenProcessor.WHEN)
+public class WhenProcessor extends AbstractProcessor {
+
+  static final String WHEN = "tools.devnull.robobundle.annotation.When";
+  private static final String LISTENER_BINDING = "tools.devnull.robobundle.event.ListenerBinding";
+  private static final String LISTENER_METHOD = "tools.devnull.robobundle.event.ListenerMethod";
+  private static final String SUFFIX = "$$ListenerBinding";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+      process(type);
+    }
+    return true;
+  }
+
+  private void process(TypeElement type) {
+    for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+      process(nested);
+    }
+    if (!isBindable(type)) {
+      return;
+    }
+    List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+    for (ExecutableElement method :
+      ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+      if (method.getModifiers().contains(Modifier.PUBLIC) && whenOf(method) != null) {
+        methods.add(method);
+      }
+    }
+    if (!methods.isEmpty()) {
+      try {
+        generate(type, methods);
+      } catch (IOException e) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Cannot generate listener binding: " + e.getMessage(), type);
+      }
+    }
+  }
+
+  private boolean isBindable(TypeElement type) {
+    if (type.getKind() != ElementKind.CLASS
+      || type.getModifiers().contains(Modifier.ABSTRACT)) {
+      return false;
+    }
+    for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+      if (e.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+    }
+    return type.getNestingKind() == NestingKind.TOP_LEVEL
+      || type.getNestingKind() == NestingKind.MEMBER;
+  }
+
+  private AnnotationMirror whenOf(ExecutableElement method) {
+    for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+      Element element = annotation.getAnnotationType().asElement();
+      if (((TypeElement) element).getQualifiedName().contentEquals(WHEN)) {
+        return annotation;
+      }
+    }
+    return null;
+  }
+
+  private List<String> eventNamesOf(ExecutableElement method) {
+    List<String> names = new ArrayList<String>();
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+      whenOf(method).getElementValues().entrySet()) {
+      if (entry.getKey().getSimpleName().contentEquals("value")) {
+        Object value = entry.getValue().getValue();
+        if (value instanceof List) {
+          for (Object name : (List<?>) value) {
+            names.add((String) ((AnnotationValue) name).getValue());
+          }
+        } else {
+          names.add((String) value);
+        }
+      }
+    }
+    return names;
+  }
+
+  private void generate(TypeElement type, List<ExecutableElement> methods) throws IOException {
+    String packageName = processingEnv.getElementUtils().getPackageOf(type)
+      .getQualifiedName().toString();
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    String bindingName = binaryName.substring(binaryName.lastIndexOf('.') + 1) + SUFFIX;
+    String typeName = erasure(type.asType());
+
+    StringBuilder code = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      code.append("package ").append(packageName).append(";\n\n");
+    }
+    code.append("/** Generated by ").append(getClass().getName()).append(". */\n")
+      .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+      .append("public final class ").append(bindingName)
+      .append(" implements ").append(LISTENER_BINDING).append("<").append(typeName).append("> {\n\n")
+      .append("  @Override\n")
+      .append("  public void bind(final ").append(typeName).append(" listener, ")
+      .append(LISTENER_BINDING).append(".Registrar registrar) {\n");
+    for (ExecutableElement method : methods) {
+      appendMethod(code, typeName, method);
+    }
+    code.append("  }\n\n}\n");
+
+    String fileName = packageName.isEmpty() ? bindingName : packageName + "." + bindingName;
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(fileName, type);
+    Writer writer = file.openWriter();
+    try {
+      writer.write(code.toString());
+    } finally {
+      writer.close();
+    }
+  }
+
+  private void appendMethod(StringBuilder code, String typeName, ExecutableElement method) {
+    List<? extends VariableElement> parameters = method.getParameters();
+    int arity = parameters.size();
+    String target = method.getModifiers().contains(Modifier.STATIC) ? typeName : "listener";
+    String call = target + "." + method.getSimpleName();
+
+    code.append("    registrar.register(new ").append(LISTENER_METHOD)
+      .append("(listener, \"").append(method.getSimpleName()).append("\", new Class<?>[]{");
+    for (int i = 0; i < arity; i++) {
+      code.append(i > 0 ? ", " : "").append(erasure(parameters.get(i).asType())).append(".class");
+    }
+    code.append("}) {\n");
+
+    // the array version is always available
+    String[] args = new String[arity];
+    for (int i = 0; i < arity; i++) {
+      args[i] = "args[" + i + "]";
+    }
+    appendInvoke(code, "Object[] args", call, parameters, args);
+    if (arity == 0) {
+      appendInvoke(code, "", call, parameters);
+      appendInvoke(code, "Object arg", call, parameters);
+      appendInvoke(code, "Object arg1, Object arg2", call, parameters);
+    } else if (arity == 1) {
+      appendInvoke(code, "Object arg", call, parameters, "arg");
+    } else if (arity == 2) {
+      appendInvoke(code, "Object arg1, Object arg2", call, parameters, "arg1", "arg2");
+    }
+
+    code.append("    }");
+    for (String eventName : eventNamesOf(method)) {
+      code.append(", ").append(processingEnv.getElementUtils().getConstantExpression(eventName));
+    }
+    code.append(");\n");
+  }
+
+  private void appendInvoke(StringBuilder code, String signature, String call,
+                            List<? extends VariableElement> parameters, String... args) {
+    code.append("      @Override\n")
+      .append("      public void invoke(").append(signature).append(") throws Throwable {\n")
+      .append("        ").append(call).append("(");
+    for (int i = 0; i < args.length; i++) {
+      code.append(i > 0 ? ", " : "")
+        .append("(").append(boxed(parameters.get(i).asType())).append(") ").append(args[i]);
+    }
+    code.append(");\n")
+      .append("      }\n");
+  }
+
+  private String erasure(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type).toString();
+  }
+
+  private String boxed(TypeMirror type) {
+    if (type.getKind().isPrimitive()) {
+      return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type)
+        .getQualifiedName().toString();
+    }
+    return erasure(type);
+  }
+
+}
@@ -26,7 +26,7 @@ package tools.devnull.robobundle.calc;
 import robocode.util.Utils;
 
 import static tools.devnull.robobundle.calc.BotMath.areEquals;
-import static tools.devnull.robobundle.calc.BotMath.toBigecimal;
+import static tools.devnull.robobundle.calc.BotMath.hash;
 
 /** @author Marcelo Guimarães */
 public class Angle {
@@ -47,6 +47,11 @@ public class Angle {
 
   private final double radians;
 
+  // computed on demand with the trigonometry in use
+  private Trigonometry trigonometry;
+  private double sin;
+  private double cos;
+
   public Angle(double radians) {
     this.radians = radians;
   }
@@ -79,12 +84,53 @@ public class Angle {
     return new Angle(-radians);
   }
 
+  /**
+   * Returns the sine of this angle. The value is computed only once for the
+   * {@link Trigonometry#current() current} trigonometry.
+   */
+  public double sin() {
+    Trigonometry current = Trigonometry.current();
+    if (current != trigonometry) {
+      reset(current);
+    }
+    double sin = this.sin;
+    if (Double.isNaN(sin)) {
+      sin = current.sin(radians);
+      this.sin = sin;
+    }
+    return sin;
+  }
+
+  /**
+   * Returns the cosine of this angle. The value is computed only once for the
+   * {@link Trigonometry#current() current} trigonometry.
+   */
+  public double cos() {
+    Trigonometry current = Trigonometry.current();
+    if (current != trigonometry) {
+      reset(current);
+    }
+    double cos = this.cos;
+    if (Double.isNaN(cos)) {
+      cos = current.cos(radians);
+      this.cos = cos;
+    }
+    return cos;
+  }
+
+  // drops the values computed with another trigonometry
+  private void reset(Trigonometry current) {
+    this.trigonometry = current;
+    this.sin = Double.NaN;
+    this.cos = Double.NaN;
+  }
+
   public static double cos(Angle angle) {
-    return Math.cos(angle.radians());
+    return angle.cos();
   }
 
   public static double sin(Angle angle) {
-    return Math.sin(angle.radians());
+    return angle.sin();
   }
 
   public static double tan(Angle angle) {
@@ -140,7 +186,7 @@ public class Angle {
 
   @Override
   public int hashCode() {
-    return toBigecimal(radians).hashCode();
+    return hash(radians);
   }
 
   public static Angle inDegrees(double degrees) {
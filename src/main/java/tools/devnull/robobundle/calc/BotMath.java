@@ -26,19 +26,78 @@ package tools.devnull.robobundle.calc;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
-/** @author Marcelo Guimarães */
+/**
+ * Numeric helpers that compare values with a precision of six decimal places (rounding
+ * half up).
+ * <p/>
+ * The comparisons are done with primitive values. Only the values that are too large or
+ * too close to a rounding tie fall back to {@link BigDecimal}, so the results are the
+ * same of comparing the values rounded through {@link #toBigecimal(double)}.
+ *
+ * @author Marcelo Guimarães
+ */
 public final class BotMath {
 
+  private static final double SCALE = 1e6;
+
+  // values up to this magnitude are quantized with an error far below the tie margin
+  private static final double MAX_QUANTIZABLE = 1e5;
+
+  private static final double TIE_MARGIN = 1e-4;
+
   public static BigDecimal toBigecimal(double a) {
     return BigDecimal.valueOf(a).setScale(6, RoundingMode.HALF_UP);
   }
 
   public static boolean areEquals(double a, double b) {
+    if (isQuantizable(a) && isQuantizable(b)) {
+      return quantize(a) == quantize(b);
+    }
     return toBigecimal(a).equals(toBigecimal(b));
   }
 
   public static int compare(double a, double b) {
+    if (isQuantizable(a) && isQuantizable(b)) {
+      return Long.compare(quantize(a), quantize(b));
+    }
     return toBigecimal(a).compareTo(toBigecimal(b));
   }
 
+  /**
+   * Returns a hash code for the given value that is consistent with
+   * {@link #areEquals(double, double)}.
+   *
+   * @param a the value
+   * @return the hash code of the value
+   */
+  public static int hash(double a) {
+    return Long.hashCode(quantize(a));
+  }
+
+  /**
+   * Returns the given value rounded to six decimal places and multiplied by one million.
+   * <p/>
+   * Values that does not fit in a <code>long</code> are truncated, so they are only good
+   * for hashing.
+   *
+   * @param a the value
+   * @return the quantized value
+   */
+  public static long quantize(double a) {
+    if (isQuantizable(a)) {
+      double scaled = a * SCALE;
+      double floor = Math.floor(scaled);
+      return (long) (scaled - floor > 0.5 ? floor + 1 : floor);
+    }
+    return toBigecimal(a).unscaledValue().longValue();
+  }
+
+  private static boolean isQuantizable(double a) {
+    if (!(Math.abs(a) < MAX_QUANTIZABLE)) {
+      return false;
+    }
+    double scaled = a * SCALE;
+    return Math.abs(scaled - Math.floor(scaled) - 0.5) > TIE_MARGIN;
+  }
+
 }
@@ -0,0 +1,193 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import tools.devnull.robobundle.Field;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The straight path of a bullet from its origin until it leaves the battle field.
+ * <p/>
+ * The point where the bullet leaves the field is computed analytically, so any position
+ * of the path can be computed without walking through it.
+ *
+ * @author Marcelo Guimarães
+ */
+public class BulletPath {
+
+  private final Point origin;
+  private final Angle heading;
+  private final double speed;
+  private final double directionX;
+  private final double directionY;
+  private final double exitDistance;
+  private final boolean originOnField;
+
+  /**
+   * Creates a new path.
+   *
+   * @param field   the battle field
+   * @param origin  the point where the bullet was fired
+   * @param heading the bullet heading
+   * @param speed   the bullet speed (in pixels per tick)
+   */
+  public BulletPath(Field field, Point origin, Angle heading, double speed) {
+    this.origin = origin;
+    this.heading = heading;
+    this.speed = speed;
+    this.directionX = heading.sin();
+    this.directionY = heading.cos();
+    this.originOnField = field.isOnField(origin.x(), origin.y());
+    // the direction is a unit vector, so the exit time is the exit distance
+    this.exitDistance = Intercept.exitTime(field, origin.x(), origin.y(), directionX, directionY);
+  }
+
+  /**
+   * @return the point where the bullet was fired
+   */
+  public Point origin() {
+    return origin;
+  }
+
+  /**
+   * @return the bullet heading
+   */
+  public Angle heading() {
+    return heading;
+  }
+
+  /**
+   * @return the bullet speed
+   */
+  public double speed() {
+    return speed;
+  }
+
+  /**
+   * @return the distance travelled by the bullet until it reaches the field border
+   */
+  public double exitDistance() {
+    return exitDistance;
+  }
+
+  /**
+   * @return the time (in ticks) that the bullet takes to reach the field border
+   */
+  public double exitTime() {
+    return exitDistance / speed;
+  }
+
+  /**
+   * @return the point where the bullet reaches the field border
+   */
+  public Point exit() {
+    return atDistance(exitDistance);
+  }
+
+  /**
+   * Returns the point of the path at the given distance from the origin. The point is
+   * not limited to the field.
+   *
+   * @param distance the distance from the origin
+   * @return the point of the path at the given distance
+   */
+  public Point atDistance(double distance) {
+    return new Point(origin.x() + directionX * distance, origin.y() + directionY * distance);
+  }
+
+  /**
+   * Returns the position of the bullet at the given time. The position is not limited
+   * to the field.
+   *
+   * @param tick the time elapsed since the bullet was fired
+   * @return the position of the bullet at the given time
+   */
+  public Point at(double tick) {
+    return atDistance(speed * tick);
+  }
+
+  /**
+   * Checks if the bullet is still in the field at the given time.
+   *
+   * @param tick the time elapsed since the bullet was fired
+   * @return <code>true</code> if the bullet did not leave the field at the given time
+   */
+  public boolean isOnField(double tick) {
+    return speed * tick <= exitDistance;
+  }
+
+  /**
+   * Returns the number of points of this path sampled with the given distance between
+   * them: the origin and every point until the first one outside the field. If the
+   * origin is outside the field, it is the only point.
+   *
+   * @param step the distance between the points
+   * @return the number of sampled points
+   */
+  public int sampleSize(double step) {
+    if (!originOnField) {
+      return 1;
+    }
+    return (int) (exitDistance / step) + 2;
+  }
+
+  /**
+   * Samples this path lazily, starting at the origin and ending at the first point
+   * outside the field.
+   *
+   * @param step the distance between the points
+   * @return a spliterator of the sampled points
+   */
+  public Spliterator<Point> sample(final double step) {
+    final int size = sampleSize(step);
+    return new Spliterators.AbstractSpliterator<Point>(size,
+      Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+
+      private int index;
+
+      @Override
+      public boolean tryAdvance(Consumer<? super Point> action) {
+        if (index >= size) {
+          return false;
+        }
+        action.accept(atDistance(step * index++));
+        return true;
+      }
+    };
+  }
+
+  /**
+   * @return a stream of the points {@link #sample(double) sampled} with the given
+   * distance between them
+   */
+  public Stream<Point> points(double step) {
+    return StreamSupport.stream(sample(step), false);
+  }
+
+}
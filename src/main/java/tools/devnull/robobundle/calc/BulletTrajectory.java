@@ -23,20 +23,19 @@
 
 package tools.devnull.robobundle.calc;
 
+import robocode.Rules;
 import tools.devnull.robobundle.Field;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import static tools.devnull.robobundle.calc.Angle.cos;
-import static tools.devnull.robobundle.calc.Angle.sin;
-
 /** @author Marcelo Guimarães */
 public class BulletTrajectory {
 
   private final Field battleField;
   private Point from;
   private double distanceBetweenPoints = 5;
+  private double bulletSpeed = Rules.getBulletSpeed(Rules.MAX_BULLET_POWER);
 
   public BulletTrajectory(Field battleField) {
     this.battleField = battleField;
@@ -52,20 +51,46 @@ public class BulletTrajectory {
     return this;
   }
 
-  public List<Point> to(Point target) {
-    Position bearing = from.bearingTo(target);
-    List<Point> points = new ArrayList<Point>(100);
-    points.add(from);
-    Point point = from;
-    while (battleField.isOnField(point)) {
-      point = new Point(
-        point.x() + distanceBetweenPoints * sin(bearing.angle().absolute()),
-        point.y() + distanceBetweenPoints * cos(bearing.angle().absolute())
-      );
-      points.add(point);
-    }
+  /**
+   * Sets the speed of the bullet used by {@link #path(Point)}. The default is the speed
+   * of a bullet fired with the maximum power.
+   *
+   * @param bulletSpeed the bullet speed
+   * @return a reference to this object
+   */
+  public BulletTrajectory speed(double bulletSpeed) {
+    this.bulletSpeed = bulletSpeed;
+    return this;
+  }
 
+  public List<Point> to(Point target) {
+    BulletPath path = path(target);
+    List<Point> points = new ArrayList<Point>(path.sampleSize(distanceBetweenPoints));
+    path.sample(distanceBetweenPoints).forEachRemaining(points::add);
     return points;
   }
 
+  /**
+   * Returns the analytic path of a bullet fired to the given target with the configured
+   * speed.
+   *
+   * @param target the bullet target
+   * @return the path of the bullet
+   */
+  public BulletPath path(Point target) {
+    return path(target, bulletSpeed);
+  }
+
+  /**
+   * Returns the analytic path of a bullet fired to the given target.
+   *
+   * @param target      the bullet target
+   * @param bulletSpeed the bullet speed
+   * @return the path of the bullet
+   */
+  public BulletPath path(Point target, double bulletSpeed) {
+    Angle heading = from.bearingTo(target).angle().absolute();
+    return new BulletPath(battleField, from, heading, bulletSpeed);
+  }
+
 }
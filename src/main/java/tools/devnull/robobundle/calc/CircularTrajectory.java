@@ -26,9 +26,6 @@ package tools.devnull.robobundle.calc;
 import java.util.ArrayList;
 import java.util.List;
 
-import static tools.devnull.robobundle.calc.Angle.cos;
-import static tools.devnull.robobundle.calc.Angle.sin;
-
 /** @author Marcelo Guimarães */
 public class CircularTrajectory {
 
@@ -58,16 +55,17 @@ public class CircularTrajectory {
     List<Point> points = new ArrayList<Point>(100);
     points.add(from);
     double radius = center.distanceTo(from);
-    Angle t = center.bearingTo(from).angle();
+    double t = center.bearingTo(from).angle().radians();
     double perimeter = Math.PI * 2 * radius;
     int numberOfPoints = (int) (perimeter / distanceBetweenPoints);
     double angleStep = direction * (Math.PI * 2) / numberOfPoints;
+    Trigonometry trigonometry = Trigonometry.current();
     while (--numberOfPoints > 0) {
       points.add(new Point(
-        center.x() + (radius * sin(t)),
-        center.y() + (radius * cos(t))
+        center.x() + (radius * trigonometry.sin(t)),
+        center.y() + (radius * trigonometry.cos(t))
       ));
-      t = t.plus(angleStep);
+      t += angleStep;
     }
     return points;
   }
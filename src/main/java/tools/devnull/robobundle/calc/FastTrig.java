@@ -0,0 +1,71 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+/**
+ * Sine and cosine computed from a lookup table with linear interpolation.
+ * <p/>
+ * The table has 4096 entries for a full turn, so the interpolation error is bounded by
+ * <code>(2 * PI / 4096)^2 / 8</code>, about <code>3e-7</code>, for any angle whose
+ * magnitude is less than <code>1e6</code> radians (larger angles lose precision when
+ * they are reduced to a full turn).
+ *
+ * @author Marcelo Guimarães
+ */
+public final class FastTrig {
+
+  private static final int SIZE = 4096;
+
+  private static final int QUARTER = SIZE / 4;
+
+  private static final double INVERSE_STEP = SIZE / (2 * Math.PI);
+
+  private static final double[] SIN = new double[SIZE + 1];
+
+  static {
+    for (int i = 0; i <= SIZE; i++) {
+      SIN[i] = Math.sin(i / INVERSE_STEP);
+    }
+  }
+
+  private FastTrig() {
+
+  }
+
+  public static double sin(double radians) {
+    return interpolate(radians * INVERSE_STEP);
+  }
+
+  public static double cos(double radians) {
+    return interpolate(radians * INVERSE_STEP + QUARTER);
+  }
+
+  private static double interpolate(double index) {
+    double floor = Math.floor(index);
+    int i = (int) ((long) floor & (SIZE - 1));
+    double fraction = index - floor;
+    return SIN[i] + (SIN[i + 1] - SIN[i]) * fraction;
+  }
+
+}
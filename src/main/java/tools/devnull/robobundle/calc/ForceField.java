@@ -0,0 +1,149 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import tools.devnull.robobundle.Field;
+
+/**
+ * A grid that holds the forces applied by a set of gravity points over a field. The
+ * forces are computed once for each grid node and interpolated for the locations
+ * between them, so the cost of a query does not depend on the number of points.
+ * <p/>
+ * The interpolation is bilinear, which means that the forces close to a gravity point
+ * are smoothed. Use a smaller resolution if the points are too close to the locations
+ * being queried.
+ *
+ * @author Marcelo Guimarães
+ */
+public class ForceField {
+
+  private final double resolution;
+  private final int columns;
+  private final int rows;
+  private final double[] forceX;
+  private final double[] forceY;
+
+  /**
+   * Computes the forces that the given points apply over the field.
+   *
+   * @param field      the field covered by the grid
+   * @param points     the gravity points
+   * @param resolution the distance between the grid nodes
+   */
+  public ForceField(Field field, Iterable<? extends GravityPoint> points, double resolution) {
+    if (resolution <= 0) {
+      throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+    }
+    this.resolution = resolution;
+    this.columns = (int) Math.ceil(field.width() / resolution) + 1;
+    this.rows = (int) Math.ceil(field.height() / resolution) + 1;
+    this.forceX = new double[columns * rows];
+    this.forceY = new double[columns * rows];
+    MutablePoint force = new MutablePoint();
+    for (int row = 0; row < rows; row++) {
+      for (int column = 0; column < columns; column++) {
+        force.set(0, 0);
+        for (GravityPoint point : points) {
+          point.addForceTo(force, column * resolution, row * resolution);
+        }
+        forceX[row * columns + column] = force.x();
+        forceY[row * columns + column] = force.y();
+      }
+    }
+  }
+
+  private ForceField(ForceField other) {
+    this.resolution = other.resolution;
+    this.columns = other.columns;
+    this.rows = other.rows;
+    this.forceX = other.forceX.clone();
+    this.forceY = other.forceY.clone();
+  }
+
+  /**
+   * Returns a new grid with the forces of this one plus the forces of the given point.
+   * This costs one force computation per grid node, instead of one per node and point
+   * of baking all the points again.
+   *
+   * @param point the point to add
+   * @return a new grid with the forces of the given point
+   */
+  public ForceField plus(GravityPoint point) {
+    ForceField result = new ForceField(this);
+    MutablePoint force = new MutablePoint();
+    for (int row = 0; row < rows; row++) {
+      for (int column = 0; column < columns; column++) {
+        int node = row * columns + column;
+        force.set(result.forceX[node], result.forceY[node]);
+        point.addForceTo(force, column * resolution, row * resolution);
+        result.forceX[node] = force.x();
+        result.forceY[node] = force.y();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the distance between the grid nodes
+   */
+  public double resolution() {
+    return resolution;
+  }
+
+  /**
+   * Adds the interpolated force at the given location to an accumulator. Locations
+   * outside the field take the force of the closest border.
+   *
+   * @param accumulator the accumulator of forces
+   * @param x           the <code>x</code> coordinate of the location
+   * @param y           the <code>y</code> coordinate of the location
+   * @return the given accumulator
+   */
+  public MutablePoint addForceTo(MutablePoint accumulator, double x, double y) {
+    double gridX = clamp(x / resolution, columns - 1);
+    double gridY = clamp(y / resolution, rows - 1);
+    int column = Math.min((int) gridX, columns - 2);
+    int row = Math.min((int) gridY, rows - 2);
+    double tx = gridX - column;
+    double ty = gridY - row;
+
+    int bottomLeft = row * columns + column;
+    int topLeft = bottomLeft + columns;
+    double w00 = (1 - tx) * (1 - ty);
+    double w10 = tx * (1 - ty);
+    double w01 = (1 - tx) * ty;
+    double w11 = tx * ty;
+    return accumulator.add(
+      w00 * forceX[bottomLeft] + w10 * forceX[bottomLeft + 1]
+        + w01 * forceX[topLeft] + w11 * forceX[topLeft + 1],
+      w00 * forceY[bottomLeft] + w10 * forceY[bottomLeft + 1]
+        + w01 * forceY[topLeft] + w11 * forceY[topLeft + 1]
+    );
+  }
+
+  private static double clamp(double value, double max) {
+    return Math.max(0, Math.min(value, max));
+  }
+
+}
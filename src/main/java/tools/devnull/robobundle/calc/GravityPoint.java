@@ -23,9 +23,6 @@
 
 package tools.devnull.robobundle.calc;
 
-import static tools.devnull.robobundle.calc.Angle.cos;
-import static tools.devnull.robobundle.calc.Angle.sin;
-
 /** @author Marcelo Guimarães */
 public class GravityPoint extends Point {
 
@@ -46,18 +43,33 @@ public class GravityPoint extends Point {
   }
 
   public Point force(Point reference) {
-    Position bearing = bearingTo(reference);
-    Angle angle = Angle.inRadians(Math.PI / 2 - Math.atan2(y() - reference.y(), x() - reference.x()));
-    double distance = bearing.distance();
+    return addForceTo(new MutablePoint(), reference.x(), reference.y()).toPoint();
+  }
+
+  /**
+   * Adds the force that this point applies to the given reference to an accumulator.
+   *
+   * @param accumulator the accumulator of forces
+   * @param referenceX  the <code>x</code> coordinate of the reference
+   * @param referenceY  the <code>y</code> coordinate of the reference
+   * @return the given accumulator
+   */
+  public MutablePoint addForceTo(MutablePoint accumulator, double referenceX, double referenceY) {
+    double angle = Math.PI / 2 - Math.atan2(y() - referenceY, x() - referenceX);
+    double distance = Vectors.distance(x(), y(), referenceX, referenceY);
     double force = BotMath.areEquals(distance, 0) ?
-      value : value / Math.pow(distance, 2);
-    return new Point(sin(angle) * force, cos(angle) * force);
+      value : value / (distance * distance);
+    return accumulator.add(Vectors.projectX(angle, force), Vectors.projectY(angle, force));
   }
 
   public TemporaryGravityPoint during(int time) {
     return new TemporaryGravityPoint(this, time);
   }
 
+  public MovingGravityPoint moving(Angle heading, double speed, int lifetime) {
+    return new MovingGravityPoint(this, heading, speed, lifetime);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,279 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import java.util.Arrays;
+
+/**
+ * A Barnes-Hut quadtree that approximates the forces applied by a set of gravity points.
+ * <p/>
+ * The points of a cell that is far enough from the reference are replaced by their
+ * centers of mass. Since gravity points may pull or push, each cell keeps one center
+ * for the positive points and another one for the negative points, so opposite points
+ * do not cancel each other in a center that does not exist.
+ * <p/>
+ * A cell is approximated when its size divided by its distance to the reference is
+ * less than <code>theta</code>. A <code>theta</code> close to zero gives the exact sum.
+ * <p/>
+ * The tree is built on the first query after the points change and reuses its storage
+ * between builds.
+ *
+ * @author Marcelo Guimarães
+ */
+public class GravityTree {
+
+  private static final int LEAF_CAPACITY = 8;
+  private static final int MAX_DEPTH = 16;
+  // points closer than this are left to GravityPoint, which handles the zero distance
+  private static final double COINCIDENT = 1e-12;
+
+  private final double theta;
+
+  private GravityPoint[] points = new GravityPoint[64];
+  private int[] next = new int[64];
+  private int size;
+  private boolean built;
+
+  private int nodes;
+  private double[] centerX = new double[64];
+  private double[] centerY = new double[64];
+  private double[] halfSize = new double[64];
+  private int[] firstChild = new int[64];
+  private int[] head = new int[64];
+  private int[] count = new int[64];
+  private double[] positive = new double[64];
+  private double[] positiveX = new double[64];
+  private double[] positiveY = new double[64];
+  private double[] negative = new double[64];
+  private double[] negativeX = new double[64];
+  private double[] negativeY = new double[64];
+
+  /**
+   * @param theta the accuracy parameter, between 0 (exclusive) and 1 (inclusive)
+   */
+  public GravityTree(double theta) {
+    if (theta <= 0 || theta > 1) {
+      throw new IllegalArgumentException("Theta must be in (0, 1]: " + theta);
+    }
+    this.theta = theta;
+  }
+
+  /**
+   * Removes all points of this tree.
+   *
+   * @return a reference to this object
+   */
+  public GravityTree clear() {
+    Arrays.fill(points, 0, size, null);
+    size = 0;
+    built = false;
+    return this;
+  }
+
+  /**
+   * Adds a point to this tree.
+   *
+   * @param point the point to add
+   * @return a reference to this object
+   */
+  public GravityTree add(GravityPoint point) {
+    if (size == points.length) {
+      points = Arrays.copyOf(points, size * 2);
+      next = Arrays.copyOf(next, size * 2);
+    }
+    points[size++] = point;
+    built = false;
+    return this;
+  }
+
+  /**
+   * @return the number of points in this tree
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Adds the approximated force that the points of this tree apply to the given
+   * reference to an accumulator.
+   *
+   * @param accumulator the accumulator of forces
+   * @param referenceX  the <code>x</code> coordinate of the reference
+   * @param referenceY  the <code>y</code> coordinate of the reference
+   * @return the given accumulator
+   */
+  public MutablePoint addForceTo(MutablePoint accumulator, double referenceX, double referenceY) {
+    if (!built) {
+      build();
+    }
+    if (nodes > 0) {
+      addForceTo(0, accumulator, referenceX, referenceY);
+    }
+    return accumulator;
+  }
+
+  private void addForceTo(int node, MutablePoint accumulator, double x, double y) {
+    if (firstChild[node] < 0) {
+      for (int i = head[node]; i >= 0; i = next[i]) {
+        GravityPoint point = points[i];
+        double dx = point.x() - x;
+        double dy = point.y() - y;
+        if (dx * dx + dy * dy < COINCIDENT) {
+          point.addForceTo(accumulator, x, y);
+        } else {
+          addForceTo(accumulator, dx, dy, point.value());
+        }
+      }
+      return;
+    }
+    double dx = centerX[node] - x;
+    double dy = centerY[node] - y;
+    double cellSize = 2 * halfSize[node];
+    if (cellSize * cellSize < theta * theta * (dx * dx + dy * dy)) {
+      addForceTo(accumulator, x, y, positive[node], positiveX[node], positiveY[node]);
+      addForceTo(accumulator, x, y, negative[node], negativeX[node], negativeY[node]);
+    } else {
+      int child = firstChild[node];
+      for (int i = 0; i < 4; i++) {
+        if (count[child + i] > 0) {
+          addForceTo(child + i, accumulator, x, y);
+        }
+      }
+    }
+  }
+
+  private static void addForceTo(MutablePoint accumulator, double x, double y,
+                                 double mass, double weightedX, double weightedY) {
+    if (mass != 0) {
+      addForceTo(accumulator, weightedX / mass - x, weightedY / mass - y, mass);
+    }
+  }
+
+  // same as GravityPoint#addForceTo, with the direction taken from the components
+  // instead of an angle
+  private static void addForceTo(MutablePoint accumulator, double dx, double dy, double value) {
+    double distanceSquared = dx * dx + dy * dy;
+    double force = value / (distanceSquared * Math.sqrt(distanceSquared));
+    accumulator.add(dx * force, dy * force);
+  }
+
+  private void build() {
+    nodes = 0;
+    built = true;
+    if (size == 0) {
+      return;
+    }
+    double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < size; i++) {
+      minX = Math.min(minX, points[i].x());
+      minY = Math.min(minY, points[i].y());
+      maxX = Math.max(maxX, points[i].x());
+      maxY = Math.max(maxY, points[i].y());
+    }
+    double half = Math.max(Math.max(maxX - minX, maxY - minY) / 2, 1);
+    newNode((minX + maxX) / 2, (minY + maxY) / 2, half);
+    for (int i = 0; i < size; i++) {
+      insert(0, i, 0);
+    }
+  }
+
+  private void insert(int node, int point, int depth) {
+    double x = points[point].x();
+    double y = points[point].y();
+    double value = points[point].value();
+    count[node]++;
+    if (value >= 0) {
+      positive[node] += value;
+      positiveX[node] += value * x;
+      positiveY[node] += value * y;
+    } else {
+      negative[node] += value;
+      negativeX[node] += value * x;
+      negativeY[node] += value * y;
+    }
+    if (firstChild[node] < 0) {
+      if (count[node] <= LEAF_CAPACITY || depth == MAX_DEPTH) {
+        next[point] = head[node];
+        head[node] = point;
+        return;
+      }
+      split(node, depth);
+    }
+    insert(childFor(node, x, y), point, depth + 1);
+  }
+
+  private void split(int node, int depth) {
+    double half = halfSize[node] / 2;
+    double x = centerX[node];
+    double y = centerY[node];
+    int child = newNode(x - half, y - half, half);
+    newNode(x + half, y - half, half);
+    newNode(x - half, y + half, half);
+    newNode(x + half, y + half, half);
+    firstChild[node] = child;
+    int point = head[node];
+    head[node] = -1;
+    while (point >= 0) {
+      int following = next[point];
+      insert(childFor(node, points[point].x(), points[point].y()), point, depth + 1);
+      point = following;
+    }
+  }
+
+  private int childFor(int node, double x, double y) {
+    return firstChild[node]
+      + (x >= centerX[node] ? 1 : 0)
+      + (y >= centerY[node] ? 2 : 0);
+  }
+
+  private int newNode(double x, double y, double half) {
+    if (nodes == centerX.length) {
+      int capacity = nodes * 2;
+      centerX = Arrays.copyOf(centerX, capacity);
+      centerY = Arrays.copyOf(centerY, capacity);
+      halfSize = Arrays.copyOf(halfSize, capacity);
+      firstChild = Arrays.copyOf(firstChild, capacity);
+      head = Arrays.copyOf(head, capacity);
+      count = Arrays.copyOf(count, capacity);
+      positive = Arrays.copyOf(positive, capacity);
+      positiveX = Arrays.copyOf(positiveX, capacity);
+      positiveY = Arrays.copyOf(positiveY, capacity);
+      negative = Arrays.copyOf(negative, capacity);
+      negativeX = Arrays.copyOf(negativeX, capacity);
+      negativeY = Arrays.copyOf(negativeY, capacity);
+    }
+    int node = nodes++;
+    centerX[node] = x;
+    centerY[node] = y;
+    halfSize[node] = half;
+    firstChild[node] = -1;
+    head[node] = -1;
+    count[node] = 0;
+    positive[node] = positiveX[node] = positiveY[node] = 0;
+    negative[node] = negativeX[node] = negativeY[node] = 0;
+    return node;
+  }
+
+}
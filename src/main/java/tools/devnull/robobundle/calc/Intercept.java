@@ -0,0 +1,110 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import tools.devnull.robobundle.Field;
+
+/**
+ * Closed-form solutions for intercepting targets that move in a straight line.
+ *
+ * @author Marcelo Guimarães
+ */
+public final class Intercept {
+
+  private Intercept() {
+
+  }
+
+  /**
+   * Computes the time a bullet takes to intercept a target moving with constant velocity.
+   * <p/>
+   * The bullet is considered to be <code>lead</code> pixels ahead when the target starts
+   * to move, so this solves <code>|D + t * V| = bulletSpeed * t + lead</code> for the
+   * smallest non negative <code>t</code>, where <code>D</code> is the position of the
+   * target relative to the shooter and <code>V</code> is the target velocity.
+   *
+   * @param dx          the <code>x</code> coordinate of the target relative to the shooter
+   * @param dy          the <code>y</code> coordinate of the target relative to the shooter
+   * @param vx          the <code>x</code> component of the target velocity
+   * @param vy          the <code>y</code> component of the target velocity
+   * @param bulletSpeed the bullet speed
+   * @param lead        the distance travelled by the bullet before the target moves
+   * @return the time to intercept the target or {@link Double#POSITIVE_INFINITY} if the
+   * bullet cannot reach it
+   */
+  public static double time(double dx, double dy, double vx, double vy,
+                            double bulletSpeed, double lead) {
+    double c = dx * dx + dy * dy - lead * lead;
+    if (c <= 0) {
+      return 0;
+    }
+    double a = vx * vx + vy * vy - bulletSpeed * bulletSpeed;
+    double b = 2 * (dx * vx + dy * vy - bulletSpeed * lead);
+    if (Math.abs(a) < 1e-12) {
+      return b < 0 ? -c / b : Double.POSITIVE_INFINITY;
+    }
+    double discriminant = b * b - 4 * a * c;
+    if (discriminant < 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double sqrt = Math.sqrt(discriminant);
+    double t1 = (-b - sqrt) / (2 * a);
+    double t2 = (-b + sqrt) / (2 * a);
+    double t = Math.min(t1, t2);
+    if (t < 0) {
+      t = Math.max(t1, t2);
+    }
+    return t < 0 ? Double.POSITIVE_INFINITY : t;
+  }
+
+  /**
+   * Computes the time an object moving with constant velocity takes to reach the border
+   * of the field.
+   *
+   * @param field the field
+   * @param x     the <code>x</code> coordinate of the object
+   * @param y     the <code>y</code> coordinate of the object
+   * @param vx    the <code>x</code> component of the velocity
+   * @param vy    the <code>y</code> component of the velocity
+   * @return the time to reach the border, zero if the object is outside the field or
+   * {@link Double#POSITIVE_INFINITY} if the object is not moving
+   */
+  public static double exitTime(Field field, double x, double y, double vx, double vy) {
+    if (!field.isOnField(x, y)) {
+      return 0;
+    }
+    return Math.min(exitTime(x, vx, field.width()), exitTime(y, vy, field.height()));
+  }
+
+  private static double exitTime(double position, double velocity, double limit) {
+    if (velocity > 0) {
+      return (limit - position) / velocity;
+    }
+    if (velocity < 0) {
+      return -position / velocity;
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+}
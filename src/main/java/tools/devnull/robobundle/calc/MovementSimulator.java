@@ -0,0 +1,302 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import tools.devnull.robobundle.Field;
+import robocode.Rules;
+import robocode.util.Utils;
+
+/**
+ * Predicts the movement of a robot tick by tick, following the rules applied by
+ * Robocode: the body turns at a rate that depends on the velocity, the velocity
+ * changes by the acceleration or deceleration limits to cover the remaining distance,
+ * and the robot stops when it hits a wall.
+ * <p/>
+ * The commands are given as in an {@link robocode.AdvancedRobot} (remaining distance,
+ * remaining turn and max velocity), either directly or by a {@link Policy} called
+ * before each tick. The simulator does not create any object while running, so one
+ * instance can be {@link #reset(double, double, double, double) reset} to simulate
+ * many candidate paths in the same turn.
+ *
+ * @author Marcelo Guimarães
+ */
+public class MovementSimulator {
+
+  /**
+   * Decides the commands of the simulated robot before each tick.
+   */
+  public interface Policy {
+
+    /**
+     * Sets the commands of the simulated robot for the next tick.
+     *
+     * @param simulator the simulator, holding the current state
+     */
+    void steer(MovementSimulator simulator);
+
+  }
+
+  private static final double HALF_BOT_SIZE = 18;
+
+  private final double minX;
+  private final double minY;
+  private final double maxX;
+  private final double maxY;
+
+  private double x;
+  private double y;
+  private double heading;
+  private double velocity;
+  private double maxVelocity;
+  private double distanceRemaining;
+  private double turnRemaining;
+  private boolean overDriving;
+  private boolean hitWall;
+  private int time;
+
+  public MovementSimulator(Field field) {
+    this.minX = HALF_BOT_SIZE;
+    this.minY = HALF_BOT_SIZE;
+    this.maxX = field.width() - HALF_BOT_SIZE;
+    this.maxY = field.height() - HALF_BOT_SIZE;
+  }
+
+  /**
+   * Starts a new simulation with the given state and no pending commands.
+   *
+   * @param x        the <code>x</code> coordinate of the robot
+   * @param y        the <code>y</code> coordinate of the robot
+   * @param heading  the heading of the robot in radians
+   * @param velocity the velocity of the robot
+   * @return a reference to this object
+   */
+  public MovementSimulator reset(double x, double y, double heading, double velocity) {
+    this.x = x;
+    this.y = y;
+    this.heading = heading;
+    this.velocity = velocity;
+    this.maxVelocity = Rules.MAX_VELOCITY;
+    this.distanceRemaining = 0;
+    this.turnRemaining = 0;
+    this.overDriving = false;
+    this.hitWall = false;
+    this.time = 0;
+    return this;
+  }
+
+  /**
+   * Sets the distance to move, negative values move back.
+   *
+   * @param distance the distance to move
+   * @return a reference to this object
+   */
+  public MovementSimulator ahead(double distance) {
+    this.distanceRemaining = distance;
+    return this;
+  }
+
+  /**
+   * Sets the angle to turn, positive values turn right.
+   *
+   * @param radians the angle to turn in radians
+   * @return a reference to this object
+   */
+  public MovementSimulator turn(double radians) {
+    this.turnRemaining = radians;
+    return this;
+  }
+
+  /**
+   * Limits the velocity of the robot.
+   *
+   * @param maxVelocity the max velocity
+   * @return a reference to this object
+   */
+  public MovementSimulator maxVelocity(double maxVelocity) {
+    this.maxVelocity = Math.max(0, Math.min(maxVelocity, Rules.MAX_VELOCITY));
+    return this;
+  }
+
+  /**
+   * Sets the commands to move to the given location, moving back if the location is
+   * behind the robot. This works like {@link tools.devnull.robobundle.parts.Body#moveTo(Point,
+   * double)}, but with the distance to the location.
+   *
+   * @param targetX the <code>x</code> coordinate of the location
+   * @param targetY the <code>y</code> coordinate of the location
+   * @return a reference to this object
+   */
+  public MovementSimulator moveTo(double targetX, double targetY) {
+    double angle = Utils.normalRelativeAngle(Vectors.bearing(x, y, targetX, targetY) - heading);
+    double distance = Vectors.distance(x, y, targetX, targetY);
+    if (Math.abs(angle) > Math.PI / 2) {
+      angle = Utils.normalRelativeAngle(angle + Math.PI);
+      distance = -distance;
+    }
+    return turn(angle).ahead(distance);
+  }
+
+  /**
+   * Advances the simulation by one tick.
+   *
+   * @return a reference to this object
+   */
+  public MovementSimulator tick() {
+    double turnRate = Rules.getTurnRateRadians(velocity);
+    double turn = Math.max(-turnRate, Math.min(turnRemaining, turnRate));
+    heading = Utils.normalAbsoluteAngle(heading + turn);
+    turnRemaining -= turn;
+
+    velocity = newVelocity(velocity, distanceRemaining, maxVelocity);
+    if (overDriving && velocity == 0) {
+      distanceRemaining = 0;
+      overDriving = false;
+    }
+    if (distanceRemaining * velocity >= 0) {
+      overDriving = stopDistance(velocity) > Math.abs(distanceRemaining);
+    }
+    distanceRemaining -= velocity;
+    x += Vectors.projectX(heading, velocity);
+    y += Vectors.projectY(heading, velocity);
+
+    hitWall = x < minX || x > maxX || y < minY || y > maxY;
+    if (hitWall) {
+      x = Math.max(minX, Math.min(x, maxX));
+      y = Math.max(minY, Math.min(y, maxY));
+      velocity = 0;
+      distanceRemaining = 0;
+      overDriving = false;
+    }
+    time++;
+    return this;
+  }
+
+  /**
+   * Advances the simulation, calling the policy before each tick.
+   *
+   * @param policy the policy that steers the robot
+   * @param ticks  the number of ticks to simulate
+   * @return a reference to this object
+   */
+  public MovementSimulator run(Policy policy, int ticks) {
+    for (int i = 0; i < ticks; i++) {
+      policy.steer(this);
+      tick();
+    }
+    return this;
+  }
+
+  public double x() {
+    return x;
+  }
+
+  public double y() {
+    return y;
+  }
+
+  /**
+   * @return the heading in radians
+   */
+  public double heading() {
+    return heading;
+  }
+
+  public double velocity() {
+    return velocity;
+  }
+
+  public double distanceRemaining() {
+    return distanceRemaining;
+  }
+
+  public double turnRemaining() {
+    return turnRemaining;
+  }
+
+  /**
+   * @return <code>true</code> if the robot hit a wall in the last tick
+   */
+  public boolean hitWall() {
+    return hitWall;
+  }
+
+  /**
+   * @return the number of ticks simulated since the last reset
+   */
+  public int time() {
+    return time;
+  }
+
+  /**
+   * @return the current location
+   */
+  public Point location() {
+    return new Point(x, y);
+  }
+
+  // the velocity rules of Robocode 1.9
+  private static double newVelocity(double velocity, double distance, double maxVelocity) {
+    if (distance < 0) {
+      return -newVelocity(-velocity, -distance, maxVelocity);
+    }
+    double goalVelocity = Math.min(maxVelocityFor(distance), maxVelocity);
+    if (velocity >= 0) {
+      return Math.max(velocity - Rules.DECELERATION,
+        Math.min(goalVelocity, velocity + Rules.ACCELERATION));
+    }
+    return Math.max(velocity - Rules.ACCELERATION,
+      Math.min(goalVelocity, velocity + maxDeceleration(-velocity)));
+  }
+
+  // the highest velocity that still allows stopping within the distance
+  private static double maxVelocityFor(double distance) {
+    double decelerationTime = Math.max(1, Math.ceil(
+      (Math.sqrt((4 * 2 / Rules.DECELERATION) * distance + 1) - 1) / 2));
+    if (decelerationTime == Double.POSITIVE_INFINITY) {
+      return Rules.MAX_VELOCITY;
+    }
+    double decelerationDistance = (decelerationTime / 2) * (decelerationTime - 1) * Rules.DECELERATION;
+    return ((decelerationTime - 1) * Rules.DECELERATION)
+      + ((distance - decelerationDistance) / decelerationTime);
+  }
+
+  // a robot moving back may decelerate and then accelerate in the same tick
+  private static double maxDeceleration(double speed) {
+    double decelerationTime = speed / Rules.DECELERATION;
+    double accelerationTime = 1 - decelerationTime;
+    return Math.min(1, decelerationTime) * Rules.DECELERATION
+      + Math.max(0, accelerationTime) * Rules.ACCELERATION;
+  }
+
+  private static double stopDistance(double velocity) {
+    double speed = Math.abs(velocity);
+    double distance = 0;
+    while (speed > 0) {
+      speed = newVelocity(speed, 0, Rules.MAX_VELOCITY);
+      distance += speed;
+    }
+    return distance;
+  }
+
+}
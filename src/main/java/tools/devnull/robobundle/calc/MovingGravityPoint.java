@@ -0,0 +1,125 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+/**
+ * A gravity point that moves in a straight line at a constant speed, like a bullet.
+ * <p/>
+ * The position is a function of the time elapsed since the point started moving, so a
+ * single object represents the whole path instead of a sample of temporary points.
+ *
+ * @author Marcelo Guimarães
+ */
+public class MovingGravityPoint {
+
+  private final GravityPoint origin;
+  private final double directionX;
+  private final double directionY;
+  private final double speed;
+  private final int lifetime;
+
+  /**
+   * @param origin   the point where the movement starts
+   * @param heading  the direction of the movement
+   * @param speed    the speed (in pixels per tick)
+   * @param lifetime the number of ticks that the point exists
+   */
+  public MovingGravityPoint(GravityPoint origin, Angle heading, double speed, int lifetime) {
+    this.origin = origin;
+    this.directionX = heading.sin();
+    this.directionY = heading.cos();
+    this.speed = speed;
+    this.lifetime = lifetime;
+  }
+
+  public GravityPoint origin() {
+    return origin;
+  }
+
+  public double value() {
+    return origin.value();
+  }
+
+  public double speed() {
+    return speed;
+  }
+
+  public int lifetime() {
+    return lifetime;
+  }
+
+  /**
+   * @param tick the time elapsed since the point started moving
+   * @return <code>true</code> if the point still exists at the given time
+   */
+  public boolean isAlive(double tick) {
+    return tick <= lifetime;
+  }
+
+  /**
+   * @param tick the time elapsed since the point started moving
+   * @return the position of the point at the given time
+   */
+  public Point at(double tick) {
+    return new Point(x(tick), y(tick));
+  }
+
+  /**
+   * Adds the force that this point applies to the given reference at the given time to
+   * an accumulator.
+   *
+   * @param accumulator the accumulator of forces
+   * @param tick        the time elapsed since the point started moving
+   * @param referenceX  the <code>x</code> coordinate of the reference
+   * @param referenceY  the <code>y</code> coordinate of the reference
+   * @return the given accumulator
+   * @see GravityPoint#addForceTo(MutablePoint, double, double)
+   */
+  public MutablePoint addForceTo(MutablePoint accumulator, double tick,
+                                 double referenceX, double referenceY) {
+    double dx = x(tick) - referenceX;
+    double dy = y(tick) - referenceY;
+    double distance = Vectors.length(dx, dy);
+    if (BotMath.areEquals(distance, 0)) {
+      // the same direction GravityPoint takes for a zero distance
+      return accumulator.add(value(), 0);
+    }
+    double force = value() / (distance * distance * distance);
+    return accumulator.add(dx * force, dy * force);
+  }
+
+  private double x(double tick) {
+    return origin.x() + directionX * speed * tick;
+  }
+
+  private double y(double tick) {
+    return origin.y() + directionY * speed * tick;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s | %.2f px/tick | %d", origin.toString(), speed, lifetime);
+  }
+
+}
@@ -0,0 +1,107 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+/**
+ * A point that can be changed, useful for accumulating coordinates without creating a
+ * {@link Point} for each step.
+ * <p/>
+ * Instances of this class should not be shared, use {@link #toPoint()} to publish the
+ * result.
+ *
+ * @author Marcelo Guimarães
+ */
+public class MutablePoint {
+
+  private double x, y;
+
+  public MutablePoint() {
+
+  }
+
+  public MutablePoint(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  public double x() {
+    return x;
+  }
+
+  public double y() {
+    return y;
+  }
+
+  public MutablePoint set(double x, double y) {
+    this.x = x;
+    this.y = y;
+    return this;
+  }
+
+  public MutablePoint set(Point point) {
+    return set(point.x(), point.y());
+  }
+
+  public MutablePoint add(double x, double y) {
+    this.x += x;
+    this.y += y;
+    return this;
+  }
+
+  public MutablePoint add(Point point) {
+    return add(point.x(), point.y());
+  }
+
+  /**
+   * Moves this point using the given heading (robocode convention) and value.
+   *
+   * @param heading the heading in radians
+   * @param value   the value to move
+   * @return a reference to this object
+   */
+  public MutablePoint move(double heading, double value) {
+    return add(Vectors.projectX(heading, value), Vectors.projectY(heading, value));
+  }
+
+  public double distanceTo(double x, double y) {
+    return Vectors.distance(this.x, this.y, x, y);
+  }
+
+  public double distanceTo(Point point) {
+    return distanceTo(point.x(), point.y());
+  }
+
+  /**
+   * @return an immutable point with the current coordinates
+   */
+  public Point toPoint() {
+    return new Point(x, y);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("(%.5f , %.5f)", x, y);
+  }
+
+}
@@ -29,9 +29,7 @@ import tools.devnull.robobundle.util.GravityPointBuilder;
 import static tools.devnull.robobundle.calc.Angle.cos;
 import static tools.devnull.robobundle.calc.Angle.sin;
 import static tools.devnull.robobundle.calc.BotMath.areEquals;
-import static tools.devnull.robobundle.calc.BotMath.toBigecimal;
-import static java.lang.Math.pow;
-import static java.lang.Math.sqrt;
+import static tools.devnull.robobundle.calc.BotMath.hash;
 
 /**
  * A class that defines a point with two dimensions (x, y).
@@ -153,6 +151,29 @@ public class Point implements Localizable {
     return distance(this, other);
   }
 
+  /**
+   * Calculates the squared distance from this point to the given point. Use this to
+   * compare distances without computing any square root.
+   *
+   * @param other the point to calculate the distance
+   * @return the squared distance between this point and the given one.
+   */
+  public double distanceSquaredTo(Point other) {
+    return Vectors.distanceSquared(x, y, other.x, other.y);
+  }
+
+  /**
+   * Checks if the given point is within the given distance from this point.
+   *
+   * @param other    the point to check
+   * @param distance the maximum distance
+   * @return <code>true</code> if the distance between the points is less than or equal
+   * to the given distance.
+   */
+  public boolean isNear(Point other, double distance) {
+    return distance >= 0 && distanceSquaredTo(other) <= distance * distance;
+  }
+
   /**
    * Moves this point using the given angle and value
    *
@@ -161,7 +182,7 @@ public class Point implements Localizable {
    * @return the moved point
    */
   public Point move(Angle angle, double value) {
-    return this.plus(new Point(value * sin(angle), value * cos(angle)));
+    return new Point(x + value * sin(angle), y + value * cos(angle));
   }
 
   @Override
@@ -188,7 +209,7 @@ public class Point implements Localizable {
   }
 
   private static double distance(Point p1, Point p2) {
-    return sqrt(pow(p1.x() - p2.x(), 2) + pow(p1.y() - p2.y(), 2));
+    return Vectors.distance(p1.x, p1.y, p2.x, p2.y);
   }
 
   /**
@@ -223,8 +244,8 @@ public class Point implements Localizable {
   @Override
   public int hashCode() {
     int result = 17;
-    result = 37 * result + toBigecimal(x).hashCode();
-    result = 37 * result + toBigecimal(y).hashCode();
+    result = 37 * result + hash(x);
+    result = 37 * result + hash(y);
     return result;
   }
 
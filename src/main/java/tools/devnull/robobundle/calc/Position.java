@@ -37,10 +37,8 @@ public class Position {
 
   public Position(Point p1, Point p2) {
     this.distance = p1.distanceTo(p2);
-    Point p3 = new Point(p1.x(), p1.y() + 10);
-    Angle angle = p1.angleOfView(p2, p3);
     //using robocode convention
-    this.angle = (p2.x() >= p1.x() ? angle : angle.inverse());
+    this.angle = new Angle(Vectors.bearing(p1.x(), p1.y(), p2.x(), p2.y()));
   }
 
   public double distance() {
@@ -40,6 +40,10 @@ public class TemporaryGravityPoint {
     return this;
   }
 
+  public int delay() {
+    return delay;
+  }
+
   public GravityPoint point() {
     return point;
   }
@@ -0,0 +1,93 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+/**
+ * The implementations of the trigonometric functions used by the calculations of this
+ * package.
+ * <p/>
+ * The implementation in use is global to the classes loaded with this package. Robocode
+ * loads the classes of each robot in its own class loader, so the choice is made per
+ * robot and lasts for the whole battle. It should be chosen once, before the robot
+ * starts computing anything: changing it later is safe (the values cached by
+ * {@link Angle} are computed again) but mixes results of both implementations in
+ * anything computed in between.
+ *
+ * @author Marcelo Guimarães
+ * @see tools.devnull.robobundle.BaseBot#useTrigonometry(Trigonometry)
+ */
+public enum Trigonometry {
+
+  /**
+   * Uses the functions of {@link Math}.
+   */
+  EXACT {
+    @Override
+    public double sin(double radians) {
+      return Math.sin(radians);
+    }
+
+    @Override
+    public double cos(double radians) {
+      return Math.cos(radians);
+    }
+  },
+  /**
+   * Uses the {@link FastTrig lookup tables}, trading some precision for speed.
+   */
+  FAST {
+    @Override
+    public double sin(double radians) {
+      return FastTrig.sin(radians);
+    }
+
+    @Override
+    public double cos(double radians) {
+      return FastTrig.cos(radians);
+    }
+  };
+
+  private static volatile Trigonometry current = EXACT;
+
+  public abstract double sin(double radians);
+
+  public abstract double cos(double radians);
+
+  /**
+   * @return the implementation in use
+   */
+  public static Trigonometry current() {
+    return current;
+  }
+
+  /**
+   * Sets the implementation to use from now on.
+   *
+   * @param trigonometry the implementation to use
+   */
+  public static void use(Trigonometry trigonometry) {
+    current = trigonometry;
+  }
+
+}
@@ -0,0 +1,117 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+/**
+ * Vector operations over primitive coordinates.
+ * <p/>
+ * These methods produce the same results of the {@link Point} and {@link Angle}
+ * operations without creating any object, so they should be used in loops that run on
+ * every turn.
+ *
+ * @author Marcelo Guimarães
+ */
+public final class Vectors {
+
+  private Vectors() {
+
+  }
+
+  /**
+   * @return the length of the vector (x, y)
+   */
+  public static double length(double x, double y) {
+    return Math.sqrt(x * x + y * y);
+  }
+
+  /**
+   * @return the distance between the points (x1, y1) and (x2, y2)
+   */
+  public static double distance(double x1, double y1, double x2, double y2) {
+    return length(x1 - x2, y1 - y2);
+  }
+
+  /**
+   * Returns the squared distance between the points (x1, y1) and (x2, y2). Use this to
+   * compare distances without computing any square root.
+   *
+   * @return the squared distance between the points
+   */
+  public static double distanceSquared(double x1, double y1, double x2, double y2) {
+    double dx = x1 - x2;
+    double dy = y1 - y2;
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * Returns the angle from the point (x1, y1) to the point (x2, y2) using the robocode
+   * convention: zero points to north and the angle grows clockwise. The angle is in the
+   * range [-PI, PI] and is negative if the second point is at west of the first one.
+   *
+   * @return the bearing from the first point to the second one in radians
+   */
+  public static double bearing(double x1, double y1, double x2, double y2) {
+    double angle = Math.atan2(Math.abs(x2 - x1), y2 - y1);
+    return x2 >= x1 ? angle : -angle;
+  }
+
+  /**
+   * @return the <code>x</code> component of a vector with the given heading (using the
+   * robocode convention) and length
+   */
+  public static double projectX(double heading, double length) {
+    return Trigonometry.current().sin(heading) * length;
+  }
+
+  /**
+   * @return the <code>y</code> component of a vector with the given heading (using the
+   * robocode convention) and length
+   */
+  public static double projectY(double heading, double length) {
+    return Trigonometry.current().cos(heading) * length;
+  }
+
+  /**
+   * Rotates the vector (x, y) and returns the resulting <code>x</code> component.
+   *
+   * @param sin the sine of the rotation angle
+   * @param cos the cosine of the rotation angle
+   * @return the <code>x</code> component of the rotated vector
+   */
+  public static double rotateX(double x, double y, double sin, double cos) {
+    return x * cos - y * sin;
+  }
+
+  /**
+   * Rotates the vector (x, y) and returns the resulting <code>y</code> component.
+   *
+   * @param sin the sine of the rotation angle
+   * @param cos the cosine of the rotation angle
+   * @return the <code>y</code> component of the rotated vector
+   */
+  public static double rotateY(double x, double y, double sin, double cos) {
+    return x * sin + y * cos;
+  }
+
+}
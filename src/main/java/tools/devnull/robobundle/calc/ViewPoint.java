@@ -23,30 +23,36 @@
 
 package tools.devnull.robobundle.calc;
 
-import static tools.devnull.robobundle.calc.Angle.cos;
-import static tools.devnull.robobundle.calc.Angle.sin;
-
 /** @author Marcelo Guimarães */
 public class ViewPoint {
 
-  private final Angle angle;
-  private final Point origin;
+  private final double sin, cos;
+  private final double originX, originY;
 
   public ViewPoint(Angle angle, Point origin) {
-    this.angle = angle;
-    this.origin = origin;
+    this.sin = angle.sin();
+    this.cos = angle.cos();
+    this.originX = origin.x();
+    this.originY = origin.y();
   }
 
   public Point transform(Point point) {
-    // move the point
-    Point result = point.minus(origin);
-    double x = result.x();
-    double y = result.y();
-    // rotate the point
-    return new Point(
-      x * cos(angle) - y * sin(angle),
-      x * sin(angle) + y * cos(angle)
-    );
+    return new Point(transformX(point.x(), point.y()), transformY(point.x(), point.y()));
+  }
+
+  /**
+   * @return the <code>x</code> coordinate of the given point in this view
+   */
+  public double transformX(double x, double y) {
+    // move and rotate the point
+    return Vectors.rotateX(x - originX, y - originY, sin, cos);
+  }
+
+  /**
+   * @return the <code>y</code> coordinate of the given point in this view
+   */
+  public double transformY(double x, double y) {
+    return Vectors.rotateY(x - originX, y - originY, sin, cos);
   }
 
 }
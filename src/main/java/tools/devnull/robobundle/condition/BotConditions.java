@@ -59,7 +59,7 @@ public class BotConditions {
       @Override
       public boolean evaluate() {
         Point wall = bot.radar().battleField().closestBorderPoint(bot.location());
-        return wall.bearingTo(bot.location()).distance() <= distance;
+        return wall.isNear(bot.location(), distance);
       }
     };
   }
@@ -0,0 +1,91 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * A listener method compiled into a {@link MethodHandle} bound to the listener.
+ * <p/>
+ * The handle is adapted once to take the event arguments as an <code>Object[]</code>,
+ * so invoking it does not require any reflection.
+ *
+ * @author Marcelo Guimarães
+ */
+class CompiledListenerMethod extends ListenerMethod {
+
+  private final MethodHandle invoker;
+  private final MethodHandle invoker0;
+  private final MethodHandle invoker1;
+  private final MethodHandle invoker2;
+
+  /**
+   * @throws IllegalAccessException if the method is not accessible (e.g. it belongs to a
+   *                                non public class).
+   */
+  CompiledListenerMethod(Object listener, Method method) throws IllegalAccessException {
+    super(listener, method.getName(), method.getParameterTypes());
+    int arity = method.getParameterCount();
+    MethodHandle handle = MethodHandles.publicLookup()
+      .unreflect(method)
+      .bindTo(listener)
+      .asType(MethodType.genericMethodType(arity).changeReturnType(void.class));
+    if (arity == 0) {
+      // methods without parameters are invoked for any event
+      this.invoker = MethodHandles.dropArguments(handle, 0, Object[].class);
+      this.invoker0 = handle;
+      this.invoker1 = MethodHandles.dropArguments(handle, 0, Object.class);
+      this.invoker2 = MethodHandles.dropArguments(handle, 0, Object.class, Object.class);
+    } else {
+      this.invoker = handle.asSpreader(Object[].class, arity);
+      this.invoker0 = null;
+      this.invoker1 = arity == 1 ? handle : null;
+      this.invoker2 = arity == 2 ? handle : null;
+    }
+  }
+
+  @Override
+  public void invoke(Object[] args) throws Throwable {
+    invoker.invokeExact(args);
+  }
+
+  @Override
+  public void invoke() throws Throwable {
+    invoker0.invokeExact();
+  }
+
+  @Override
+  public void invoke(Object arg) throws Throwable {
+    invoker1.invokeExact(arg);
+  }
+
+  @Override
+  public void invoke(Object arg1, Object arg2) throws Throwable {
+    invoker2.invokeExact(arg1, arg2);
+  }
+
+}
@@ -24,131 +24,751 @@
 package tools.devnull.robobundle.event;
 
 import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.LogLevel;
 import tools.devnull.robobundle.annotation.When;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * @author Marcelo Guimarães
  */
 public class DefaultEventRegistry implements EventRegistry {
 
+  private static final Map<Class<?>, ListenerBinding<?>> bindings =
+    new ConcurrentHashMap<Class<?>, ListenerBinding<?>>();
+
+  private static final ListenerBinding<Object> NO_BINDING = new ListenerBinding<Object>() {
+    @Override
+    public void bind(Object listener, Registrar registrar) {
+
+    }
+  };
+
+  private static final Object[] NO_ARGS = new Object[0];
+
   private final Bot bot;
 
-  private Map<String, Mapping> mappings = new HashMap<String, Mapping>(20);
+  private Mapping[] mappings = new Mapping[32];
+
+  private Deferral[] deferrals;
+
+  private List<DeferredEvent> queue = new ArrayList<DeferredEvent>();
+
+  private List<DeferredEvent> draining = new ArrayList<DeferredEvent>();
+
+  private boolean compileListeners;
+
+  private ListenerProfiler profiler;
+
+  private final Set<Object> roundScoped =
+    Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+  private final ListenerMethod clearDeferred = new ListenerMethod(this, "clearDeferred", new Class<?>[0]) {
+    @Override
+    public void invoke(Object[] args) {
+      clearDeferred();
+    }
+  };
+
+  private final ListenerMethod roundEnd = new ListenerMethod(this, "endRound", new Class<?>[0]) {
+    @Override
+    public void invoke(Object[] args) {
+      endRound();
+    }
+  };
 
   public DefaultEventRegistry(Bot bot) {
     this.bot = bot;
   }
 
-  private Mapping getMapping(String eventName) {
-    if (mappings.containsKey(eventName)) {
-      return mappings.get(eventName);
+  /**
+   * Compiles the methods of every listener registered from now on into
+   * {@link java.lang.invoke.MethodHandle method handles}, so sending an event does not
+   * need any reflection. Methods that cannot be compiled are still invoked through
+   * reflection.
+   *
+   * @return a reference to this object
+   */
+  public DefaultEventRegistry compileListeners() {
+    this.compileListeners = true;
+    return this;
+  }
+
+  /**
+   * Measures the time spent by the methods of every listener registered from now on and
+   * logs a ranked table of them when each round ends.
+   * <p/>
+   * The measuring is attached to the listener methods at registration, so this should be
+   * called before registering any listener. Listeners registered while the profiling is
+   * disabled have no overhead.
+   *
+   * @return a reference to this object
+   * @see ListenerProfiler
+   */
+  public DefaultEventRegistry profileListeners() {
+    if (profiler == null) {
+      profiler = new ListenerProfiler(bot);
+      register(profiler);
+    }
+    return this;
+  }
+
+  /**
+   * Defers the given event: instead of being dispatched when sent, the event will be
+   * queued and dispatched on the next {@link #flush()}.
+   *
+   * @param key the event to defer
+   * @return a reference to this object
+   */
+  public DefaultEventRegistry defer(EventKey key) {
+    return defer(key, null);
+  }
+
+  /**
+   * Defers the given event coalescing the redundant ones: an event whose arguments
+   * produce the same key of an event already in the queue replaces the queued arguments
+   * instead of being queued again.
+   *
+   * @param key           the event to defer
+   * @param coalescingKey the function to produce the coalescing key of the event
+   *                      arguments
+   * @return a reference to this object
+   * @see #flush()
+   */
+  public DefaultEventRegistry defer(EventKey key, Function<Object[], ?> coalescingKey) {
+    int id = key.id();
+    if (deferrals == null) {
+      deferrals = new Deferral[Math.max(id + 1, mappings.length)];
+    } else if (id >= deferrals.length) {
+      deferrals = Arrays.copyOf(deferrals, Math.max(id + 1, deferrals.length * 2));
+    }
+    if (deferrals[id] == null) {
+      getMapping(EventKey.ROUND_ENDED).add(clearDeferred);
+    }
+    deferrals[id] = new Deferral(key, coalescingKey);
+    return this;
+  }
+
+  /**
+   * Defers the given event keeping only the latest one sent before each
+   * {@link #flush()}.
+   *
+   * @param key the event to defer
+   * @return a reference to this object
+   */
+  public DefaultEventRegistry deferLatest(final EventKey key) {
+    return defer(key, args -> key);
+  }
+
+  /**
+   * Dispatches the deferred events in the order they were sent. Deferred events sent
+   * while flushing will be queued to the next flush.
+   */
+  @Override
+  public void flush() {
+    if (queue.isEmpty()) {
+      return;
+    }
+    List<DeferredEvent> events = queue;
+    queue = draining;
+    // events sent from now on go to the next flush, even if their slots are being drained
+    for (DeferredEvent event : events) {
+      event.state = DeferredEvent.DRAINING;
+    }
+    for (DeferredEvent event : events) {
+      Mapping mapping = mappingOf(event.key);
+      Object[] args = event.args;
+      // the arguments are read before the event is released, since a listener may
+      // defer the same event again and reuse it
+      switch (args.length) {
+        case 0:
+          event.release();
+          if (mapping != null) {
+            mapping.send();
+          }
+          break;
+        case 1:
+          Object arg = args[0];
+          event.release();
+          if (mapping != null) {
+            mapping.send(arg);
+          }
+          break;
+        case 2:
+          Object arg1 = args[0];
+          Object arg2 = args[1];
+          event.release();
+          if (mapping != null) {
+            mapping.send(arg1, arg2);
+          }
+          break;
+        default:
+          args = args.clone();
+          event.release();
+          if (mapping != null) {
+            mapping.send(args);
+          }
+      }
+    }
+    events.clear();
+    draining = events;
+  }
+
+  // the deferred events of a round are dropped when it ends
+  private void clearDeferred() {
+    for (DeferredEvent event : queue) {
+      event.release();
+    }
+    queue.clear();
+  }
+
+  private Deferral deferralOf(EventKey key) {
+    Deferral[] deferrals = this.deferrals;
+    if (deferrals == null) {
+      return null;
+    }
+    int id = key.id();
+    return id < deferrals.length ? deferrals[id] : null;
+  }
+
+  private void add(String eventName, ListenerMethod listenerMethod) {
+    if (profiler != null && listenerMethod.listener() != profiler) {
+      listenerMethod = new ProfiledListenerMethod(listenerMethod,
+        profiler.entryFor(eventName, listenerMethod));
+    }
+    getMapping(EventKey.of(eventName)).add(listenerMethod);
+  }
+
+  private Mapping getMapping(EventKey key) {
+    int id = key.id();
+    if (id >= mappings.length) {
+      mappings = Arrays.copyOf(mappings, Math.max(id + 1, mappings.length * 2));
+    }
+    Mapping mapping = mappings[id];
+    if (mapping == null) {
+      mapping = new Mapping();
+      mappings[id] = mapping;
     }
-    Mapping mapping = new Mapping();
-    mappings.put(eventName, mapping);
     return mapping;
   }
 
+  /**
+   * Registers the given listener. If the listener class has a {@link ListenerBinding}
+   * generated at compile time, it will be used instead of scanning the listener methods.
+   */
   @Override
   public void register(final Object listener) {
+    ListenerBinding<Object> binding = bindingOf(listener.getClass());
+    if (binding != NO_BINDING) {
+      if (bot.isLogging(LogLevel.DEBUG)) {
+        bot.log(LogLevel.DEBUG, "Registering %s through %s.", listener, binding.getClass().getName());
+      }
+      binding.bind(listener, new ListenerBinding.Registrar() {
+        @Override
+        public void register(ListenerMethod method, String... eventNames) {
+          for (String eventName : eventNames) {
+            add(eventName, method);
+          }
+        }
+      });
+      return;
+    }
     String[] eventNames;
     for (Method method : listener.getClass().getMethods()) {
       if (method.isAnnotationPresent(When.class)) {
         eventNames = method.getAnnotation(When.class).value();
+        ListenerMethod listenerMethod = createListenerMethod(listener, method);
         for (String eventName : eventNames) {
-          bot.log("Registering %s to %s.", method, eventName);
-          getMapping(eventName).add(listener, method);
+          if (bot.isLogging(LogLevel.DEBUG)) {
+            bot.log(LogLevel.DEBUG, "Registering %s to %s.", method, eventName);
+          }
+          add(eventName, listenerMethod);
         }
       }
     }
   }
 
+  @Override
+  public void unregister(Object listener) {
+    for (Mapping mapping : mappings) {
+      if (mapping != null) {
+        mapping.remove(listener);
+      }
+    }
+    roundScoped.remove(listener);
+  }
+
+  /**
+   * Registers the given listener until the current round ends. The listener will still
+   * receive the {@link Events#ROUND_ENDED} event.
+   */
+  @Override
+  public void registerUntilRoundEnds(Object listener) {
+    if (roundScoped.isEmpty()) {
+      getMapping(EventKey.ROUND_ENDED).add(roundEnd);
+    }
+    roundScoped.add(listener);
+    register(listener);
+  }
+
+  private void endRound() {
+    List<Object> listeners = new ArrayList<Object>(roundScoped);
+    for (Object listener : listeners) {
+      unregister(listener);
+    }
+    // the other round end hooks of this registry must stay
+    getMapping(EventKey.ROUND_ENDED).removeMethod(roundEnd);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ListenerBinding<Object> bindingOf(Class<?> type) {
+    ListenerBinding<?> binding = bindings.get(type);
+    if (binding == null) {
+      binding = loadBinding(type);
+      bindings.put(type, binding);
+    }
+    return (ListenerBinding<Object>) binding;
+  }
+
+  private static ListenerBinding<?> loadBinding(Class<?> type) {
+    try {
+      Class<?> bindingClass = Class.forName(type.getName() + ListenerBinding.SUFFIX,
+        true, type.getClassLoader());
+      return (ListenerBinding<?>) bindingClass.newInstance();
+    } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+      // no binding was generated for this class (or it cannot be used)
+      return NO_BINDING;
+    }
+  }
+
+  private ListenerMethod createListenerMethod(Object listener, Method method) {
+    if (compileListeners) {
+      try {
+        return new CompiledListenerMethod(listener, method);
+      } catch (IllegalAccessException e) {
+        bot.log(LogLevel.WARNING, "Cannot compile %s, using reflection instead.", method);
+      }
+    }
+    return new ReflectiveListenerMethod(listener, method);
+  }
+
   @Override
   public void send(String eventName, Object... args) {
-    getMapping(eventName).send(args);
+    send(EventKey.of(eventName), args);
+  }
+
+  @Override
+  public void send(EventKey key, Object... args) {
+    Deferral deferral = deferralOf(key);
+    if (deferral != null) {
+      deferral.enqueue(args);
+      return;
+    }
+    Mapping mapping = mappingOf(key);
+    if (mapping != null) {
+      mapping.send(args);
+    }
+  }
+
+  @Override
+  public void send(EventKey key) {
+    Deferral deferral = deferralOf(key);
+    if (deferral != null) {
+      deferral.enqueue(NO_ARGS);
+      return;
+    }
+    Mapping mapping = mappingOf(key);
+    if (mapping != null) {
+      mapping.send();
+    }
+  }
+
+  @Override
+  public void send(EventKey key, Object arg) {
+    Deferral deferral = deferralOf(key);
+    if (deferral != null) {
+      deferral.enqueue(arg);
+      return;
+    }
+    Mapping mapping = mappingOf(key);
+    if (mapping != null) {
+      mapping.send(arg);
+    }
+  }
+
+  @Override
+  public void send(EventKey key, Object arg1, Object arg2) {
+    Deferral deferral = deferralOf(key);
+    if (deferral != null) {
+      deferral.enqueue(arg1, arg2);
+      return;
+    }
+    Mapping mapping = mappingOf(key);
+    if (mapping != null) {
+      mapping.send(arg1, arg2);
+    }
+  }
+
+  private Mapping mappingOf(EventKey key) {
+    Mapping[] mappings = this.mappings;
+    int id = key.id();
+    return id < mappings.length ? mappings[id] : null;
+  }
+
+  private void invoke(ListenerMethod listenerMethod, Object[] args) {
+    try {
+      listenerMethod.invoke(args);
+    } catch (Throwable e) {
+      error(listenerMethod, e);
+    }
+  }
+
+  private void invoke(ListenerMethod listenerMethod) {
+    try {
+      listenerMethod.invoke();
+    } catch (Throwable e) {
+      error(listenerMethod, e);
+    }
+  }
+
+  private void invoke(ListenerMethod listenerMethod, Object arg) {
+    try {
+      listenerMethod.invoke(arg);
+    } catch (Throwable e) {
+      error(listenerMethod, e);
+    }
+  }
+
+  private void invoke(ListenerMethod listenerMethod, Object arg1, Object arg2) {
+    try {
+      listenerMethod.invoke(arg1, arg2);
+    } catch (Throwable e) {
+      error(listenerMethod, e);
+    }
+  }
+
+  private void error(ListenerMethod listenerMethod, Throwable e) {
+    bot.log(LogLevel.ERROR, "Error while invoking %s:%n\t%s - %s",
+      listenerMethod, e.getClass(), e.getMessage());
+    bot.log(e);
+  }
+
+  private class Deferral {
+
+    private final EventKey key;
+    private final Function<Object[], ?> coalescingKey;
+    // the slots of the coalescing keys, reused in every flush
+    private final Map<Object, Slot> slots = new HashMap<Object, Slot>();
+    // released events of a deferral that does not coalesce
+    private final List<DeferredEvent> pool = new ArrayList<DeferredEvent>();
+    private final Object[] singleArg = new Object[1];
+    private final Object[] twoArgs = new Object[2];
+
+    private Deferral(EventKey key, Function<Object[], ?> coalescingKey) {
+      this.key = key;
+      this.coalescingKey = coalescingKey;
+    }
+
+    private void enqueue(Object[] args) {
+      eventFor(args).set(args);
+    }
+
+    private void enqueue(Object arg) {
+      singleArg[0] = arg;
+      DeferredEvent event = eventFor(singleArg);
+      singleArg[0] = null;
+      event.set(arg);
+    }
+
+    private void enqueue(Object arg1, Object arg2) {
+      twoArgs[0] = arg1;
+      twoArgs[1] = arg2;
+      DeferredEvent event = eventFor(twoArgs);
+      twoArgs[0] = null;
+      twoArgs[1] = null;
+      event.set(arg1, arg2);
+    }
+
+    private DeferredEvent eventFor(Object[] args) {
+      if (coalescingKey == null) {
+        DeferredEvent event = pool.isEmpty() ?
+          new DeferredEvent(key, pool) : pool.remove(pool.size() - 1);
+        return queue(event);
+      }
+      Object eventKey = coalescingKey.apply(args);
+      Slot slot = slots.get(eventKey);
+      if (slot == null) {
+        slot = new Slot(key);
+        slots.put(eventKey, slot);
+      }
+      return slot.eventToQueue();
+    }
+
+  }
+
+  // holds two events, so one can be queued while the other is being drained
+  private class Slot {
+
+    private final DeferredEvent first;
+    private final DeferredEvent second;
+    private DeferredEvent current;
+
+    private Slot(EventKey key) {
+      this.first = new DeferredEvent(key, null);
+      this.second = new DeferredEvent(key, null);
+    }
+
+    private DeferredEvent eventToQueue() {
+      if (current != null && current.state == DeferredEvent.QUEUED) {
+        return current;
+      }
+      current = first.state == DeferredEvent.IDLE ? first : second;
+      return queue(current);
+    }
+
+  }
+
+  private DeferredEvent queue(DeferredEvent event) {
+    event.state = DeferredEvent.QUEUED;
+    queue.add(event);
+    return event;
+  }
+
+  private static class DeferredEvent {
+
+    private static final int IDLE = 0;
+    private static final int QUEUED = 1;
+    private static final int DRAINING = 2;
+
+    private final EventKey key;
+    private final List<DeferredEvent> pool;
+    private Object[] args = NO_ARGS;
+    private int state = IDLE;
+
+    private DeferredEvent(EventKey key, List<DeferredEvent> pool) {
+      this.key = key;
+      this.pool = pool;
+    }
+
+    private void set(Object[] values) {
+      if (args.length != values.length) {
+        args = new Object[values.length];
+      }
+      System.arraycopy(values, 0, args, 0, values.length);
+    }
+
+    private void set(Object arg) {
+      if (args.length != 1) {
+        args = new Object[1];
+      }
+      args[0] = arg;
+    }
+
+    private void set(Object arg1, Object arg2) {
+      if (args.length != 2) {
+        args = new Object[2];
+      }
+      args[0] = arg1;
+      args[1] = arg2;
+    }
+
+    private void release() {
+      Arrays.fill(args, null);
+      state = IDLE;
+      if (pool != null) {
+        pool.add(this);
+      }
+    }
+
   }
 
   private class Mapping {
 
-    private final Set<ListenerMapping> listeners;
+    private ListenerMethod[] listeners;
+
+    private Dispatch[] dispatches;
 
     private Mapping() {
-      this.listeners = new LinkedHashSet<ListenerMapping>();
+      this.listeners = new ListenerMethod[0];
+      this.dispatches = new Dispatch[0];
+    }
+
+    public void add(ListenerMethod listenerMethod) {
+      for (ListenerMethod listener : listeners) {
+        if (listener.equals(listenerMethod)) {
+          return;
+        }
+      }
+      ListenerMethod[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+      newListeners[listeners.length] = listenerMethod;
+      // the arrays are replaced instead of modified so running dispatches are not affected
+      this.listeners = newListeners;
+      this.dispatches = new Dispatch[0];
+    }
+
+    public void remove(Object listener) {
+      remove(listener, null);
     }
 
-    public void add(Object listener, Method method) {
-      listeners.add(new ListenerMapping(listener, method));
+    public void removeMethod(ListenerMethod listenerMethod) {
+      remove(listenerMethod.listener(), listenerMethod);
+    }
+
+    // removes the methods of the listener, or only the given method if there is one
+    private void remove(Object listener, ListenerMethod listenerMethod) {
+      int first = 0;
+      while (first < listeners.length && !matches(listeners[first], listener, listenerMethod)) {
+        first++;
+      }
+      if (first == listeners.length) {
+        return;
+      }
+      ListenerMethod[] remaining = Arrays.copyOf(listeners, listeners.length - 1);
+      int count = first;
+      for (int i = first + 1; i < listeners.length; i++) {
+        if (!matches(listeners[i], listener, listenerMethod)) {
+          remaining[count++] = listeners[i];
+        }
+      }
+      this.listeners = count < remaining.length ? Arrays.copyOf(remaining, count) : remaining;
+      this.dispatches = new Dispatch[0];
+    }
+
+    private boolean matches(ListenerMethod candidate, Object listener,
+                            ListenerMethod listenerMethod) {
+      return listenerMethod == null ? candidate.listener() == listener : candidate == listenerMethod;
     }
 
     public void send(Object... args) {
-      for (ListenerMapping mapping : listeners) {
-        mapping.send(args);
+      ListenerMethod[] targets = dispatchFor(args).listeners;
+      for (ListenerMethod listenerMethod : targets) {
+        invoke(listenerMethod, args);
       }
     }
 
-  }
+    public void send() {
+      ListenerMethod[] targets = dispatchFor().listeners;
+      for (ListenerMethod listenerMethod : targets) {
+        invoke(listenerMethod);
+      }
+    }
 
-  private class ListenerMapping {
+    public void send(Object arg) {
+      ListenerMethod[] targets = dispatchFor(arg).listeners;
+      for (ListenerMethod listenerMethod : targets) {
+        invoke(listenerMethod, arg);
+      }
+    }
 
-    private Method method;
-    private Object listener;
+    public void send(Object arg1, Object arg2) {
+      ListenerMethod[] targets = dispatchFor(arg1, arg2).listeners;
+      for (ListenerMethod listenerMethod : targets) {
+        invoke(listenerMethod, arg1, arg2);
+      }
+    }
 
-    private ListenerMapping(Object listener, Method method) {
-      this.method = method;
-      this.listener = listener;
+    private Dispatch dispatchFor(Object[] args) {
+      for (Dispatch dispatch : dispatches) {
+        if (dispatch.matches(args)) {
+          return dispatch;
+        }
+      }
+      return createDispatch(args);
     }
 
-    public void send(Object... args) {
-      Class<?>[] parameterTypes = method.getParameterTypes();
-      if (args.length == parameterTypes.length) {
-        for (int i = 0; i < parameterTypes.length; i++) {
-          if (!parameterTypes[i].isAssignableFrom(args[i].getClass())) {
-            return;
-          }
+    private Dispatch dispatchFor() {
+      for (Dispatch dispatch : dispatches) {
+        if (dispatch.matches()) {
+          return dispatch;
         }
+      }
+      return createDispatch(new Object[0]);
+    }
 
-      } else if (parameterTypes.length == 0) {
-        //if the method does not take any args, invoke it without args
-        args = null;
+    private Dispatch dispatchFor(Object arg) {
+      for (Dispatch dispatch : dispatches) {
+        if (dispatch.matches(arg)) {
+          return dispatch;
+        }
       }
-      try {
-        method.invoke(listener, args);
-      } catch (IllegalAccessException e) {
-        e.printStackTrace();
-        bot.log("Error while invoking %s:%n\t%s - %s",
-          method, e.getClass(), e.getMessage());
-        bot.log(e);
-      } catch (InvocationTargetException e) {
-        Throwable cause = e.getCause();
-        cause.printStackTrace();
-        bot.log("Error while invoking %s:%n\t%s - %s",
-          method, cause.getClass(), cause.getMessage());
-        bot.log(e.getCause());
+      return createDispatch(new Object[]{arg});
+    }
+
+    private Dispatch dispatchFor(Object arg1, Object arg2) {
+      for (Dispatch dispatch : dispatches) {
+        if (dispatch.matches(arg1, arg2)) {
+          return dispatch;
+        }
       }
+      return createDispatch(new Object[]{arg1, arg2});
     }
 
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (o == null || getClass() != o.getClass()) return false;
+    private Dispatch createDispatch(Object[] args) {
+      Dispatch dispatch = new Dispatch(args, listeners);
+      Dispatch[] newDispatches = Arrays.copyOf(dispatches, dispatches.length + 1);
+      newDispatches[dispatches.length] = dispatch;
+      this.dispatches = newDispatches;
+      return dispatch;
+    }
+
+  }
 
-      ListenerMapping that = (ListenerMapping) o;
+  /**
+   * The listeners that accept a given signature of arguments (the classes of each
+   * argument sent).
+   */
+  private static class Dispatch {
 
-      if (!listener.equals(that.listener)) return false;
-      if (!method.equals(that.method)) return false;
+    private final Class<?>[] signature;
+    private final ListenerMethod[] listeners;
 
+    private Dispatch(Object[] args, ListenerMethod[] candidates) {
+      this.signature = new Class<?>[args.length];
+      for (int i = 0; i < args.length; i++) {
+        signature[i] = typeOf(args[i]);
+      }
+      List<ListenerMethod> accepted = new ArrayList<ListenerMethod>(candidates.length);
+      for (ListenerMethod candidate : candidates) {
+        if (candidate.accepts(args)) {
+          accepted.add(candidate);
+        }
+      }
+      this.listeners = accepted.toArray(new ListenerMethod[accepted.size()]);
+    }
+
+    private boolean matches(Object[] args) {
+      if (args.length != signature.length) {
+        return false;
+      }
+      for (int i = 0; i < args.length; i++) {
+        if (signature[i] != typeOf(args[i])) {
+          return false;
+        }
+      }
       return true;
     }
 
-    @Override
-    public int hashCode() {
-      int result = method.hashCode();
-      result = 31 * result + listener.hashCode();
-      return result;
+    private boolean matches() {
+      return signature.length == 0;
     }
+
+    private boolean matches(Object arg) {
+      return signature.length == 1 && signature[0] == typeOf(arg);
+    }
+
+    private boolean matches(Object arg1, Object arg2) {
+      return signature.length == 2
+        && signature[0] == typeOf(arg1)
+        && signature[1] == typeOf(arg2);
+    }
+
+    private static Class<?> typeOf(Object arg) {
+      return arg == null ? null : arg.getClass();
+    }
+
   }
 
 }
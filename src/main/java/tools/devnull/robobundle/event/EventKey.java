@@ -0,0 +1,118 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.event;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An interned event name.
+ * <p/>
+ * Every distinct event name is mapped to a dense <code>int</code> id, so the registry can
+ * index the listeners of an event in a plain array instead of hashing its name on every
+ * send. Custom event names can be interned through {@link #of(String)}.
+ *
+ * @author Marcelo Guimarães
+ */
+public final class EventKey {
+
+  private static final ConcurrentMap<String, EventKey> keys =
+    new ConcurrentHashMap<String, EventKey>(40);
+
+  private static final AtomicInteger sequence = new AtomicInteger();
+
+  public static final EventKey ENEMY_SCANNED = of(Events.ENEMY_SCANNED);
+  public static final EventKey HIT_BY_BULLET = of(Events.HIT_BY_BULLET);
+  public static final EventKey BULLET_HIT = of(Events.BULLET_HIT);
+  public static final EventKey BULLET_HIT_BULLET = of(Events.BULLET_HIT_BULLET);
+  public static final EventKey BULLET_MISSED = of(Events.BULLET_MISSED);
+  public static final EventKey ROBOT_DEATH = of(Events.ROBOT_DEATH);
+  public static final EventKey HIT_ROBOT = of(Events.HIT_ROBOT);
+  public static final EventKey HIT_WALL = of(Events.HIT_WALL);
+  public static final EventKey PAINT = of(Events.PAINT);
+  public static final EventKey DRAW = of(Events.DRAW);
+  public static final EventKey NEXT_TURN = of(Events.NEXT_TURN);
+  public static final EventKey BULLET_FIRED = of(Events.BULLET_FIRED);
+  public static final EventKey WIN = of(Events.WIN);
+  public static final EventKey ENEMY_FIRE = of(Events.ENEMY_FIRE);
+  public static final EventKey ROUND_STARTED = of(Events.ROUND_STARTED);
+  public static final EventKey ROUND_ENDED = of(Events.ROUND_ENDED);
+  public static final EventKey BATTLE_ENDED = of(Events.BATTLE_ENDED);
+  public static final EventKey DEATH = of(Events.DEATH);
+  public static final EventKey NEAR_TO_WALL = of(Events.NEAR_TO_WALL);
+  public static final EventKey NEAR_TO_ENEMY = of(Events.NEAR_TO_ENEMY);
+  public static final EventKey BULLET_NOT_FIRED = of(Events.BULLET_NOT_FIRED);
+  public static final EventKey TARGET_UNSET = of(Events.TARGET_UNSET);
+  public static final EventKey TARGET_SET = of(Events.TARGET_SET);
+  public static final EventKey GUN_AIMED = of(Events.GUN_AIMED);
+  public static final EventKey SKIPPED_TURN = of(Events.SKIPPED_TURN);
+  public static final EventKey TURN_STARTED = of(Events.TURN_STARTED);
+  public static final EventKey TURN_ENDED = of(Events.TURN_ENDED);
+  public static final EventKey OVER_BUDGET = of(Events.OVER_BUDGET);
+
+  private final int id;
+  private final String name;
+
+  private EventKey(int id, String name) {
+    this.id = id;
+    this.name = name;
+  }
+
+  /**
+   * @return the id of this key. Ids start at zero and are assigned in the order the
+   * names are interned.
+   */
+  public int id() {
+    return id;
+  }
+
+  /**
+   * @return the event name
+   */
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  /**
+   * Returns the key of the given event name, creating it if this is the first time the
+   * name is used.
+   *
+   * @param name the event name
+   * @return the key of the given event name
+   */
+  public static EventKey of(String name) {
+    EventKey key = keys.get(name);
+    if (key == null) {
+      key = keys.computeIfAbsent(name, n -> new EventKey(sequence.getAndIncrement(), n));
+    }
+    return key;
+  }
+
+}
@@ -28,6 +28,58 @@ public interface EventRegistry {
 
   void register(Object listener);
 
+  /**
+   * Registers the given listener until the current round ends. The default
+   * implementation {@link #register(Object) registers} the listener for good, for
+   * registries that cannot remove listeners.
+   *
+   * @param listener the listener to register
+   */
+  default void registerUntilRoundEnds(Object listener) {
+    register(listener);
+  }
+
+  /**
+   * Removes every listener method of the given listener. Events being dispatched while
+   * the listener is removed are not affected.
+   * <p/>
+   * The default implementation throws an {@link UnsupportedOperationException}.
+   *
+   * @param listener the listener to remove
+   */
+  default void unregister(Object listener) {
+    throw new UnsupportedOperationException("This registry cannot remove listeners");
+  }
+
   void send(String eventName, Object... args);
 
+  /**
+   * Sends an event using its {@link EventKey key}. The default implementation sends it
+   * by its name, registries should override this and the other key based methods to
+   * avoid resolving the name.
+   */
+  default void send(EventKey key, Object... args) {
+    send(key.name(), args);
+  }
+
+  default void send(EventKey key) {
+    send(key.name());
+  }
+
+  default void send(EventKey key, Object arg) {
+    send(key.name(), new Object[]{arg});
+  }
+
+  default void send(EventKey key, Object arg1, Object arg2) {
+    send(key.name(), arg1, arg2);
+  }
+
+  /**
+   * Dispatches the events that were queued to be sent later. The default implementation
+   * does nothing, for registries that don't defer any event.
+   */
+  default void flush() {
+
+  }
+
 }
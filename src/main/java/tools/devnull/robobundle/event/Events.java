@@ -50,5 +50,9 @@ public interface Events {
   public static final String TARGET_UNSET = "TARGET_UNSET";
   public static final String TARGET_SET = "TARGET_SET";
   public static final String GUN_AIMED = "GUN_AIMED"; //gun aimed successfully
+  public static final String SKIPPED_TURN = "SKIPPED_TURN";
+  public static final String TURN_STARTED = "TURN_STARTED"; //before the bot does anything in a turn
+  public static final String TURN_ENDED = "TURN_ENDED"; //right before the bot commits its actions
+  public static final String OVER_BUDGET = "OVER_BUDGET"; //turns are taking too long
 
 }
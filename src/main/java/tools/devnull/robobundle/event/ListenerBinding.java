@@ -0,0 +1,67 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.event;
+
+/**
+ * Binds the {@link tools.devnull.robobundle.annotation.When listener methods} of a type
+ * without scanning its methods through reflection.
+ * <p/>
+ * Implementations are generated at compile time by the
+ * {@link tools.devnull.robobundle.annotation.processing.WhenProcessor} for every class
+ * that has listener methods. The generated class lives in the same package of the
+ * listener type and is named after its binary name plus the {@link #SUFFIX}.
+ *
+ * @author Marcelo Guimarães
+ */
+public interface ListenerBinding<E> {
+
+  /**
+   * The suffix appended to the binary name of a listener type to name its binding.
+   */
+  String SUFFIX = "$$ListenerBinding";
+
+  /**
+   * Registers every listener method of the given listener.
+   *
+   * @param listener  the listener to bind
+   * @param registrar the registrar that will receive the listener methods
+   */
+  void bind(E listener, Registrar registrar);
+
+  /**
+   * Interface that defines a component that receives the bound listener methods.
+   */
+  interface Registrar {
+
+    /**
+     * Registers a listener method to the given events.
+     *
+     * @param method     the listener method
+     * @param eventNames the events the method listens to
+     */
+    void register(ListenerMethod method, String... eventNames);
+
+  }
+
+}
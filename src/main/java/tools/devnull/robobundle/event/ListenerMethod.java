@@ -0,0 +1,202 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.event;
+
+import java.util.Arrays;
+
+/**
+ * A method of a listener that should be invoked when an event is sent.
+ * <p/>
+ * The parameter types are resolved once, when the listener is registered, so the
+ * registry can check if the method accepts the event arguments without any reflection.
+ *
+ * @author Marcelo Guimarães
+ */
+public abstract class ListenerMethod {
+
+  private static final Object[] NO_ARGS = new Object[0];
+
+  private final Object listener;
+  private final String name;
+  private final Class<?>[] parameterTypes;
+
+  protected ListenerMethod(Object listener, String name, Class<?>[] parameterTypes) {
+    this.listener = listener;
+    this.name = name;
+    this.parameterTypes = parameterTypes;
+  }
+
+  /**
+   * @return the object that holds the method
+   */
+  public Object listener() {
+    return listener;
+  }
+
+  /**
+   * @return the method name
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * @return the number of parameters taken by the method
+   */
+  public int arity() {
+    return parameterTypes.length;
+  }
+
+  Class<?>[] parameterTypes() {
+    return parameterTypes;
+  }
+
+  /**
+   * Checks if this method can be invoked with the given arguments. Methods that does not
+   * take any arguments accepts every event.
+   *
+   * @param args the event arguments
+   * @return <code>true</code> if the method can be invoked with the given arguments
+   */
+  public boolean accepts(Object[] args) {
+    if (parameterTypes.length == 0) {
+      return true;
+    }
+    if (args.length != parameterTypes.length) {
+      return false;
+    }
+    for (int i = 0; i < parameterTypes.length; i++) {
+      if (!accepts(i, args[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if this method can be invoked for an event without arguments.
+   *
+   * @return <code>true</code> if the method does not take any arguments
+   */
+  public boolean accepts() {
+    return parameterTypes.length == 0;
+  }
+
+  /**
+   * Checks if this method can be invoked with the given argument.
+   *
+   * @param arg the event argument
+   * @return <code>true</code> if the method can be invoked with the given argument
+   */
+  public boolean accepts(Object arg) {
+    return parameterTypes.length == 0
+      || (parameterTypes.length == 1 && accepts(0, arg));
+  }
+
+  /**
+   * Checks if this method can be invoked with the given arguments.
+   *
+   * @param arg1 the first event argument
+   * @param arg2 the second event argument
+   * @return <code>true</code> if the method can be invoked with the given arguments
+   */
+  public boolean accepts(Object arg1, Object arg2) {
+    return parameterTypes.length == 0
+      || (parameterTypes.length == 2 && accepts(0, arg1) && accepts(1, arg2));
+  }
+
+  private boolean accepts(int index, Object arg) {
+    Class<?> type = parameterTypes[index];
+    return arg == null ? !type.isPrimitive() : type.isInstance(arg);
+  }
+
+  /**
+   * Invokes the method. The arguments must be {@link #accepts(Object[]) accepted} by this
+   * method.
+   *
+   * @param args the event arguments
+   * @throws Throwable any error thrown by the method
+   */
+  public abstract void invoke(Object[] args) throws Throwable;
+
+  /**
+   * Invokes the method for an event without arguments. Subclasses should override this
+   * to avoid creating an array of arguments.
+   *
+   * @throws Throwable any error thrown by the method
+   */
+  public void invoke() throws Throwable {
+    invoke(NO_ARGS);
+  }
+
+  /**
+   * Invokes the method for an event with one argument. Subclasses should override this
+   * to avoid creating an array of arguments.
+   *
+   * @param arg the event argument
+   * @throws Throwable any error thrown by the method
+   */
+  public void invoke(Object arg) throws Throwable {
+    invoke(new Object[]{arg});
+  }
+
+  /**
+   * Invokes the method for an event with two arguments. Subclasses should override this
+   * to avoid creating an array of arguments.
+   *
+   * @param arg1 the first event argument
+   * @param arg2 the second event argument
+   * @throws Throwable any error thrown by the method
+   */
+  public void invoke(Object arg1, Object arg2) throws Throwable {
+    invoke(new Object[]{arg1, arg2});
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || !(o instanceof ListenerMethod)) return false;
+
+    ListenerMethod that = (ListenerMethod) o;
+
+    if (!listener.equals(that.listener)) return false;
+    if (!name.equals(that.name)) return false;
+    if (!Arrays.equals(parameterTypes, that.parameterTypes)) return false;
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = name.hashCode();
+    result = 31 * result + listener.hashCode();
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return listener.getClass().getName() + "." + name;
+  }
+
+}
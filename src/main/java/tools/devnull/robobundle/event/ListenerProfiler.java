@@ -0,0 +1,195 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.event;
+
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.annotation.When;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collects the time spent by each listener method for each event and logs a ranked
+ * table when a round ends. Only the most expensive methods get a row, so the table
+ * doesn't push the other messages out of the robot's log buffer.
+ * <p/>
+ * Times are kept in a histogram with four buckets for each power of two, so the
+ * percentiles are reported with an error of at most 25%.
+ *
+ * @author Marcelo Guimarães
+ */
+public class ListenerProfiler {
+
+  private static final int SUB_BUCKETS = 4;
+
+  private final Bot bot;
+  private final List<Entry> entries = new ArrayList<Entry>();
+  private int rows = 20;
+
+  public ListenerProfiler(Bot bot) {
+    this.bot = bot;
+  }
+
+  /**
+   * Sets the number of listener methods reported in the table. The default is 20.
+   *
+   * @param rows the number of rows
+   * @return a reference to this object
+   */
+  public ListenerProfiler top(int rows) {
+    this.rows = Math.max(1, rows);
+    return this;
+  }
+
+  /**
+   * Creates an entry to profile the given listener method for the given event.
+   *
+   * @param eventName the event name
+   * @param method    the listener method
+   * @return the created entry
+   */
+  public Entry entryFor(String eventName, ListenerMethod method) {
+    Entry entry = new Entry(eventName, method.toString());
+    entries.add(entry);
+    return entry;
+  }
+
+  /**
+   * Logs the collected times of the {@link #top(int) most expensive} listener methods,
+   * from the most expensive one to the cheapest, and starts a new collection.
+   */
+  @When(Events.ROUND_ENDED)
+  public void report() {
+    List<Entry> ranked = new ArrayList<Entry>();
+    for (Entry entry : entries) {
+      if (entry.calls > 0) {
+        ranked.add(entry);
+      }
+    }
+    Collections.sort(ranked, new Comparator<Entry>() {
+      @Override
+      public int compare(Entry e1, Entry e2) {
+        return Long.compare(e2.total, e1.total);
+      }
+    });
+    bot.log("%-18s %-64s %8s %10s %8s %8s %8s %8s",
+      "event", "listener", "calls", "total(us)", "min", "p50", "p99", "max");
+    for (Entry entry : ranked.subList(0, Math.min(rows, ranked.size()))) {
+      bot.log("%-18s %-64s %8d %10d %8d %8d %8d %8d",
+        entry.eventName, entry.method, entry.calls, entry.total / 1000,
+        entry.min, entry.percentile(0.5), entry.percentile(0.99), entry.max);
+    }
+    if (ranked.size() > rows) {
+      long calls = 0;
+      long total = 0;
+      for (Entry entry : ranked.subList(rows, ranked.size())) {
+        calls += entry.calls;
+        total += entry.total;
+      }
+      bot.log("%-18s %-64s %8d %10d", "",
+        "(" + (ranked.size() - rows) + " more listener methods)", calls, total / 1000);
+    }
+    bot.log("(times in nanoseconds unless noted)");
+    for (Entry entry : entries) {
+      entry.reset();
+    }
+  }
+
+  private static int bucketOf(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    int fraction = (int) (nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+    return (exponent - 1) * SUB_BUCKETS + fraction;
+  }
+
+  private static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int exponent = bucket / SUB_BUCKETS + 1;
+    long fraction = bucket % SUB_BUCKETS;
+    return ((SUB_BUCKETS + fraction + 1) << (exponent - 2)) - 1;
+  }
+
+  /**
+   * The times collected for a listener method of an event.
+   */
+  public static class Entry {
+
+    private final String eventName;
+    private final String method;
+    private final long[] histogram = new long[64 * SUB_BUCKETS];
+
+    private long calls;
+    private long total;
+    private long min;
+    private long max;
+
+    private Entry(String eventName, String method) {
+      this.eventName = eventName;
+      this.method = method;
+      reset();
+    }
+
+    /**
+     * Records an invocation of the listener method.
+     *
+     * @param nanos the time spent by the invocation
+     */
+    public void record(long nanos) {
+      calls++;
+      total += nanos;
+      min = Math.min(min, nanos);
+      max = Math.max(max, nanos);
+      histogram[bucketOf(nanos)]++;
+    }
+
+    private long percentile(double percentile) {
+      long rank = (long) Math.ceil(calls * percentile);
+      long count = 0;
+      for (int i = 0; i < histogram.length; i++) {
+        count += histogram[i];
+        if (count >= rank) {
+          return Math.min(max, Math.max(min, upperBoundOf(i)));
+        }
+      }
+      return max;
+    }
+
+    private void reset() {
+      calls = 0;
+      total = 0;
+      min = Long.MAX_VALUE;
+      max = 0;
+      Arrays.fill(histogram, 0);
+    }
+
+  }
+
+}
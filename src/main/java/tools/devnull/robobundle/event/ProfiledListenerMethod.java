@@ -0,0 +1,82 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.event;
+
+/**
+ * A listener method that measures the time spent by each invocation of another method.
+ *
+ * @author Marcelo Guimarães
+ */
+class ProfiledListenerMethod extends ListenerMethod {
+
+  private final ListenerMethod method;
+  private final ListenerProfiler.Entry entry;
+
+  ProfiledListenerMethod(ListenerMethod method, ListenerProfiler.Entry entry) {
+    super(method.listener(), method.name(), method.parameterTypes());
+    this.method = method;
+    this.entry = entry;
+  }
+
+  @Override
+  public void invoke(Object[] args) throws Throwable {
+    long start = System.nanoTime();
+    try {
+      method.invoke(args);
+    } finally {
+      entry.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void invoke() throws Throwable {
+    long start = System.nanoTime();
+    try {
+      method.invoke();
+    } finally {
+      entry.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void invoke(Object arg) throws Throwable {
+    long start = System.nanoTime();
+    try {
+      method.invoke(arg);
+    } finally {
+      entry.record(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void invoke(Object arg1, Object arg2) throws Throwable {
+    long start = System.nanoTime();
+    try {
+      method.invoke(arg1, arg2);
+    } finally {
+      entry.record(System.nanoTime() - start);
+    }
+  }
+
+}
@@ -27,7 +27,7 @@ import tools.devnull.robobundle.BaseBot;
 import tools.devnull.robobundle.Localizable;
 import tools.devnull.robobundle.calc.Angle;
 import tools.devnull.robobundle.calc.Point;
-import tools.devnull.robobundle.calc.ViewPoint;
+import tools.devnull.robobundle.calc.Vectors;
 
 /**
  * @author Marcelo Guimarães
@@ -44,9 +44,11 @@ public abstract class BasePart implements Part {
 
   @Override
   public boolean isAtLeft(Localizable target) {
-    ViewPoint viewPoint = new ViewPoint(heading(), bot.location());
-    Point viewedPoint = viewPoint.transform(target.location());
-    return viewedPoint.x() < 0;
+    Point location = bot.location();
+    Point point = target.location();
+    Angle heading = heading();
+    return Vectors.rotateX(point.x() - location.x(), point.y() - location.y(),
+      heading.sin(), heading.cos()) < 0;
   }
 
   @Override
@@ -61,9 +63,11 @@ public abstract class BasePart implements Part {
 
   @Override
   public boolean isInBack(Localizable target) {
-    ViewPoint viewPoint = new ViewPoint(heading(), bot.location());
-    Point viewedPoint = viewPoint.transform(target.location());
-    return viewedPoint.y() < 0;
+    Point location = bot.location();
+    Point point = target.location();
+    Angle heading = heading();
+    return Vectors.rotateY(point.x() - location.x(), point.y() - location.y(),
+      heading.sin(), heading.cos()) < 0;
   }
 
 }
@@ -82,6 +82,20 @@ public interface Body extends Part {
    */
   void moveTo(Point point, double amount);
 
+  /**
+   * Sets a filter for the direction of the movements requested by {@link
+   * #moveTo(Point, double)} and {@link #moveAndTurn(double, Angle)}.
+   *
+   * <p/>
+   * The default implementation ignores the filter, so bodies that don't support it
+   * keep moving without any filtering.
+   *
+   * @param filter the filter to use, or <code>null</code> to remove the current one
+   */
+  default void filterHeading(HeadingFilter filter) {
+
+  }
+
   /**
    * Gets the robot's energy
    *
@@ -0,0 +1,178 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.parts.aiming;
+
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Enemy;
+import tools.devnull.robobundle.Field;
+import tools.devnull.robobundle.annotation.When;
+import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.calc.Trigonometry;
+import tools.devnull.robobundle.calc.Vectors;
+import tools.devnull.robobundle.parts.AimingSystem;
+import tools.devnull.robobundle.plugin.EnemyTracker;
+import tools.devnull.robobundle.util.Drawer;
+import robocode.Rules;
+import robocode.util.Utils;
+
+import static tools.devnull.robobundle.event.Events.DRAW;
+import static java.awt.Color.ORANGE;
+
+/**
+ * An aiming system that predicts the target moving in an arc.
+ * <p/>
+ * The turn rate and the acceleration of the target are estimated from its recent scans
+ * (kept by an {@link EnemyTracker}) and the target is moved one tick at a time until the
+ * bullet reaches it. The rotation of each tick is computed only once, so there is no
+ * trigonometry inside the loop. The target stops when it hits a wall, and a target that
+ * is decelerating stops instead of reversing its direction.
+ *
+ * @author Marcelo Guimarães
+ */
+public class CircularPredictionAimingSystem implements AimingSystem {
+
+  // half of the robot's size, the closest a robot gets to a wall
+  private static final double WALL_MARGIN = 18;
+
+  // scans older than this are not used to estimate the movement
+  private static final long MAX_SCAN_GAP = 16;
+
+  private final Bot bot;
+  private final EnemyTracker tracker;
+  private int samples = 4;
+  private Point predictedLocation;
+
+  public CircularPredictionAimingSystem(Bot bot, EnemyTracker tracker) {
+    this.bot = bot;
+    this.tracker = tracker;
+  }
+
+  /**
+   * Sets the number of recent scans used to estimate the target movement. The default
+   * is 4.
+   *
+   * @param samples the number of scans
+   * @return a reference to this object
+   */
+  public CircularPredictionAimingSystem usingLast(int samples) {
+    this.samples = Math.max(2, samples);
+    return this;
+  }
+
+  @Override
+  public void execute() {
+    if (!bot.radar().hasTargetSet()) {
+      predictedLocation = null;
+      return;
+    }
+    Enemy enemy = bot.radar().target();
+    double turnRate = 0;
+    double acceleration = 0;
+    Enemy last = tracker.recentScan(enemy, 0);
+    if (last != null) {
+      double turn = 0;
+      long elapsed = 0;
+      Enemy newer = last;
+      for (int i = 1; i < samples; i++) {
+        Enemy older = tracker.recentScan(enemy, i);
+        if (older == null || newer.when() - older.when() > MAX_SCAN_GAP) {
+          break;
+        }
+        turn += Utils.normalRelativeAngle(
+          newer.heading().radians() - older.heading().radians());
+        elapsed = last.when() - older.when();
+        if (elapsed > 0) {
+          acceleration = (last.velocity() - older.velocity()) / elapsed;
+        }
+        newer = older;
+      }
+      if (elapsed > 0) {
+        turnRate = turn / elapsed;
+      }
+    }
+    turnRate = Math.max(-Rules.MAX_TURN_RATE_RADIANS,
+      Math.min(Rules.MAX_TURN_RATE_RADIANS, turnRate));
+    // a target moving backwards decelerates with a positive acceleration
+    double limit = enemy.velocity() * acceleration < 0 ? Rules.DECELERATION : Rules.ACCELERATION;
+    acceleration = Math.max(-limit, Math.min(limit, acceleration));
+    predictedLocation = predict(enemy, turnRate, acceleration);
+    bot.gun().aimTo(predictedLocation);
+  }
+
+  private Point predict(Enemy enemy, double turnRate, double acceleration) {
+    Trigonometry trigonometry = Trigonometry.current();
+    double bulletSpeed = Rules.getBulletSpeed(bot.gun().power());
+    Point origin = bot.location();
+    Field field = bot.radar().battleField();
+    double minX = WALL_MARGIN;
+    double minY = WALL_MARGIN;
+    double maxX = field.width() - WALL_MARGIN;
+    double maxY = field.height() - WALL_MARGIN;
+
+    double heading = enemy.heading().radians();
+    double directionX = trigonometry.sin(heading);
+    double directionY = trigonometry.cos(heading);
+    // the rotation applied on each tick
+    double sin = trigonometry.sin(turnRate);
+    double cos = trigonometry.cos(turnRate);
+
+    Point location = enemy.location();
+    double x = location.x();
+    double y = location.y();
+    double velocity = enemy.velocity();
+    boolean decelerating = velocity * acceleration < 0;
+    double ticks = 0;
+    while ((++ticks) * bulletSpeed < Vectors.distance(origin.x(), origin.y(), x, y)) {
+      double rotatedX = Vectors.rotateX(directionX, directionY, -sin, cos);
+      directionY = Vectors.rotateY(directionX, directionY, -sin, cos);
+      directionX = rotatedX;
+      velocity += acceleration;
+      if (decelerating) {
+        if (velocity * acceleration > 0) {
+          // the target stopped
+          velocity = 0;
+        }
+      } else {
+        velocity = Math.max(-Rules.MAX_VELOCITY, Math.min(Rules.MAX_VELOCITY, velocity));
+      }
+      x += directionX * velocity;
+      y += directionY * velocity;
+      if (x < minX || y < minY || x > maxX || y > maxY) {
+        // the target stops at the wall
+        x = Math.max(minX, Math.min(maxX, x));
+        y = Math.max(minY, Math.min(maxY, y));
+        break;
+      }
+    }
+    return new Point(x, y);
+  }
+
+  @When(DRAW)
+  public void draw(Drawer drawer) {
+    if (predictedLocation != null) {
+      drawer.draw(ORANGE).cross().at(predictedLocation);
+    }
+  }
+
+}
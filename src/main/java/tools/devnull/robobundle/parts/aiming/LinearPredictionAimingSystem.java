@@ -27,14 +27,13 @@ import tools.devnull.robobundle.Bot;
 import tools.devnull.robobundle.Enemy;
 import tools.devnull.robobundle.Field;
 import tools.devnull.robobundle.annotation.When;
-import tools.devnull.robobundle.calc.Angle;
+import tools.devnull.robobundle.calc.Intercept;
 import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.calc.Vectors;
 import tools.devnull.robobundle.parts.AimingSystem;
 import tools.devnull.robobundle.util.Drawer;
 import robocode.Rules;
 
-import static tools.devnull.robobundle.calc.Angle.cos;
-import static tools.devnull.robobundle.calc.Angle.sin;
 import static tools.devnull.robobundle.event.Events.DRAW;
 import static java.awt.Color.RED;
 
@@ -43,35 +42,58 @@ public class LinearPredictionAimingSystem implements AimingSystem {
 
   private final Bot bot;
   private Point predictedLocation;
+  private boolean fromNextTurnPosition;
 
   public LinearPredictionAimingSystem(Bot bot) {
     this.bot = bot;
   }
 
+  /**
+   * Predicts the enemy location using the position the bot will have in the next turn
+   * as the bullet origin, instead of the current one. Robocode fires the bullet after
+   * the bot moves.
+   *
+   * @return a reference to this object
+   */
+  public LinearPredictionAimingSystem fromNextTurnPosition() {
+    this.fromNextTurnPosition = true;
+    return this;
+  }
+
   public void execute() {
     double bulletSpeed = Rules.getBulletSpeed(bot.gun().power());
     Point botLocation = bot.location();
     if (bot.radar().hasTargetSet()) {
       Enemy enemy = bot.radar().target();
-      Angle enemyHeading = enemy.heading();
+      double enemyHeading = enemy.heading().radians();
       double enemyVelocity = enemy.velocity();
+      double velocityX = Vectors.projectX(enemyHeading, enemyVelocity);
+      double velocityY = Vectors.projectY(enemyHeading, enemyVelocity);
 
-      double deltaTime = 0;
-      Field battleField = bot.radar().battleField();
-      predictedLocation = enemy.location();
-      while ((++deltaTime) * bulletSpeed < botLocation.bearingTo(predictedLocation).distance()) {
-        predictedLocation = predictedLocation.plus(new Point(
-          sin(enemyHeading) * enemyVelocity,
-          cos(enemyHeading) * enemyVelocity
-        ));
-        // check bounds
-        if (!battleField.isOnField(predictedLocation)) {
-          // out of bounds
-          predictedLocation = battleField.normalize(predictedLocation);
-          break;
-        }
+      double originX = botLocation.x();
+      double originY = botLocation.y();
+      if (fromNextTurnPosition) {
+        double botHeading = bot.body().heading().radians();
+        originX += Vectors.projectX(botHeading, bot.body().velocity());
+        originY += Vectors.projectY(botHeading, bot.body().velocity());
       }
-      predictedLocation = battleField.normalize(predictedLocation);
+
+      Field battleField = bot.radar().battleField();
+      Point enemyLocation = enemy.location();
+      // the enemy moves one tick at a time and the bullet starts one tick ahead
+      double ticks = Math.ceil(Intercept.time(
+        enemyLocation.x() - originX, enemyLocation.y() - originY,
+        velocityX, velocityY, bulletSpeed, bulletSpeed
+      ));
+      // stops at the first tick outside the field
+      double exitTime = Intercept.exitTime(battleField,
+        enemyLocation.x(), enemyLocation.y(), velocityX, velocityY);
+      ticks = Math.min(ticks, Math.floor(exitTime) + 1);
+
+      predictedLocation = battleField.normalize(new Point(
+        enemyLocation.x() + velocityX * ticks,
+        enemyLocation.y() + velocityY * ticks
+      ));
       bot.gun().aimTo(predictedLocation);
     } else {
       predictedLocation = null;
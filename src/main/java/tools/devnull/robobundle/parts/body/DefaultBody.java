@@ -25,12 +25,14 @@ package tools.devnull.robobundle.parts.body;
 
 import tools.devnull.robobundle.BaseBot;
 import tools.devnull.robobundle.ConditionalCommand;
+import tools.devnull.robobundle.LogLevel;
 import tools.devnull.robobundle.calc.Angle;
 import tools.devnull.robobundle.calc.Point;
 import tools.devnull.robobundle.calc.Position;
 import tools.devnull.robobundle.parts.BasePart;
 import tools.devnull.robobundle.parts.Body;
 import tools.devnull.robobundle.parts.DefaultConditionalCommand;
+import tools.devnull.robobundle.parts.HeadingFilter;
 import tools.devnull.robobundle.parts.MovingSystem;
 
 import java.awt.*;
@@ -41,6 +43,7 @@ import java.awt.*;
 public class DefaultBody extends BasePart implements Body {
 
   private final DefaultConditionalCommand<MovingSystem> movingSystem;
+  private HeadingFilter headingFilter;
 
   public DefaultBody(BaseBot bot) {
     super(bot);
@@ -54,7 +57,9 @@ public class DefaultBody extends BasePart implements Body {
 
   @Override
   public void move(double distance) {
-    bot.log("Ahead: %.4f", distance);
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Ahead: %.4f", distance);
+    }
     bot.setAhead(distance);
   }
 
@@ -68,7 +73,7 @@ public class DefaultBody extends BasePart implements Body {
 
   @Override
   public void moveAndTurn(double distance, Angle angle) {
-    turn(angle);
+    turn(filter(angle, distance));
     move(distance);
   }
 
@@ -97,10 +102,27 @@ public class DefaultBody extends BasePart implements Body {
       angle = Angle.PI.minus(angle).inverse();
       amount = -amount;
     }
-    turn(angle);
+    turn(filter(angle, amount));
     move(amount);
   }
 
+  @Override
+  public void filterHeading(HeadingFilter filter) {
+    this.headingFilter = filter;
+  }
+
+  // the filter works with the direction of the movement, which is the opposite of the
+  // heading when moving back
+  private Angle filter(Angle turn, double distance) {
+    if (headingFilter == null || distance == 0) {
+      return turn;
+    }
+    Angle heading = heading();
+    Angle offset = distance < 0 ? Angle.PI : Angle.ZERO;
+    Angle direction = headingFilter.filter(bot.location(), heading.plus(turn).plus(offset));
+    return direction.minus(offset).minus(heading).relative();
+  }
+
   @Override
   public Angle heading() {
     return new Angle(bot.getHeadingRadians());
@@ -113,7 +135,9 @@ public class DefaultBody extends BasePart implements Body {
 
   @Override
   public void turn(Angle angle) {
-    bot.log("Body Turn : %.4f", angle.degrees());
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Body Turn : %.4f", angle.degrees());
+    }
     bot.setTurnRightRadians(angle.radians());
   }
 
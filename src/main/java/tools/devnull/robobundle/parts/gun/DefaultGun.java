@@ -25,11 +25,12 @@ package tools.devnull.robobundle.parts.gun;
 
 import tools.devnull.robobundle.BaseBot;
 import tools.devnull.robobundle.ConditionalCommand;
+import tools.devnull.robobundle.LogLevel;
 import tools.devnull.robobundle.calc.Angle;
 import tools.devnull.robobundle.calc.Point;
 import tools.devnull.robobundle.condition.Condition;
 import tools.devnull.robobundle.condition.RadarConditions;
-import tools.devnull.robobundle.event.Events;
+import tools.devnull.robobundle.event.EventKey;
 import tools.devnull.robobundle.exception.SystemException;
 import tools.devnull.robobundle.parts.*;
 import robocode.util.Utils;
@@ -64,7 +65,7 @@ public class DefaultGun extends BasePart implements Gun {
   public Gun aim() {
     try {
       aimingSystem.execute();
-      bot.broadcast(Events.GUN_AIMED);
+      bot.broadcast(EventKey.GUN_AIMED);
     } catch (SystemException e) {
       bot.log(e);
     }
@@ -119,7 +120,9 @@ public class DefaultGun extends BasePart implements Gun {
 
   @Override
   public void turn(Angle angle) {
-    bot.log("Turning gun %s from %s", angle, heading());
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Turning gun %s from %s", angle, heading());
+    }
     bot.setTurnGunRightRadians(angle.radians());
   }
 
@@ -135,7 +138,9 @@ public class DefaultGun extends BasePart implements Gun {
 
   @Override
   public Gun aimTo(Point point) {
-    bot.log("Aiming gun to %s", point);
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Aiming gun to %s", point);
+    }
     Point diff = point.minus(bot.location());
     double theta = Utils.normalAbsoluteAngle(Math.atan2(diff.x(), diff.y()));
     Angle angle = new Angle(Utils.normalRelativeAngle(theta - bot.gun().heading().radians()));
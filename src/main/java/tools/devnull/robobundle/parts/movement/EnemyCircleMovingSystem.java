@@ -25,6 +25,7 @@ package tools.devnull.robobundle.parts.movement;
 
 import tools.devnull.robobundle.Bot;
 import tools.devnull.robobundle.Enemy;
+import tools.devnull.robobundle.LogLevel;
 import tools.devnull.robobundle.calc.Angle;
 import tools.devnull.robobundle.parts.MovingSystem;
 
@@ -48,8 +49,10 @@ public class EnemyCircleMovingSystem implements MovingSystem {
       Enemy enemy = bot.radar().target();
       Angle heading = bot.body().heading();
       Angle angle = enemy.bearing().plus(Angle.PI_OVER_TWO);
-      bot.log("Turning %s", angle);
-      bot.log("Body is at %s", heading);
+      if (bot.isLogging(LogLevel.DEBUG)) {
+        bot.log(LogLevel.DEBUG, "Turning %s", angle);
+        bot.log(LogLevel.DEBUG, "Body is at %s", heading);
+      }
       bot.body().moveAndTurn(ahead, angle);
     }
   }
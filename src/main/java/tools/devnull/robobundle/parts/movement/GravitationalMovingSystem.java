@@ -24,19 +24,31 @@
 package tools.devnull.robobundle.parts.movement;
 
 import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Field;
+import tools.devnull.robobundle.LogLevel;
 import tools.devnull.robobundle.annotation.When;
+import tools.devnull.robobundle.calc.ForceField;
 import tools.devnull.robobundle.calc.GravityPoint;
+import tools.devnull.robobundle.calc.GravityTree;
+import tools.devnull.robobundle.calc.MovingGravityPoint;
+import tools.devnull.robobundle.calc.MutablePoint;
 import tools.devnull.robobundle.calc.Point;
 import tools.devnull.robobundle.calc.TemporaryGravityPoint;
+import tools.devnull.robobundle.event.EventKey;
 import tools.devnull.robobundle.event.Events;
 import tools.devnull.robobundle.parts.MovingSystem;
 import tools.devnull.robobundle.util.Drawer;
+import tools.devnull.robobundle.util.TimingWheel;
 
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static java.lang.Math.random;
 
@@ -45,12 +57,33 @@ public class GravitationalMovingSystem implements MovingSystem {
 
   public static final String LOW_ENFORCING = "GravitationalMovingSystem.LOW_ENFORCING";
 
+  private static final EventKey LOW_ENFORCING_KEY = EventKey.of(LOW_ENFORCING);
+
+  private static final int MAX_BAKED_FIELDS = 4;
+
+  // robocode creates the robot again on each round, so the baked fields are kept here to
+  // bake the same points only once per battle
+  private static final Map<BakedPoints, ForceField> bakedFields = Collections.synchronizedMap(
+    new LinkedHashMap<BakedPoints, ForceField>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<BakedPoints, ForceField> eldest) {
+        return size() > MAX_BAKED_FIELDS;
+      }
+    });
+
   private final Bot bot;
   private Collection<GravityPoint> fixedPoints = new HashSet<GravityPoint>(100);
-  private Collection<TemporaryGravityPoint> temporaryPoints = new HashSet<TemporaryGravityPoint>(100);
+  private final TimingWheel<ActivePoint> pendingPoints = new TimingWheel<ActivePoint>(64);
+  private final List<ActivePoint> activePoints = new ArrayList<ActivePoint>(100);
+  private final List<MovingPoint> movingPoints = new ArrayList<MovingPoint>(20);
+  private long turn;
+  private final MutablePoint force = new MutablePoint();
   private Point forcePoint;
   private double lowEnforcing;
   private boolean drawTemporaryPoints;
+  private double forceFieldResolution;
+  private ForceField forceField;
+  private GravityTree temporaryTree;
 
   public GravitationalMovingSystem(Bot bot) {
     this.bot = bot;
@@ -62,14 +95,83 @@ public class GravitationalMovingSystem implements MovingSystem {
   }
 
   public GravitationalMovingSystem add(GravityPoint point) {
-    bot.log("Adding gravity point: %s", point);
-    fixedPoints.add(point);
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Adding gravity point: %s", point);
+    }
+    if (fixedPoints.add(point) && forceField != null) {
+      // only the new point is baked, the field is shared with the other rounds
+      forceField = forceField.plus(point);
+      bakedFields.put(bakedPoints(bot.radar().battleField()), forceField);
+    }
     return this;
   }
 
   public GravitationalMovingSystem add(TemporaryGravityPoint point) {
-    bot.log("Adding temp gravity point: %s", point);
-    temporaryPoints.add(point);
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Adding temp gravity point: %s", point);
+    }
+    if (point.duration() > 0) {
+      // a point is active from the turn after its delay, or the next turn if not delayed
+      long activation = turn + Math.max(point.delay(), 1);
+      pendingPoints.schedule(new ActivePoint(point.point(), activation + point.duration()), activation);
+    }
+    return this;
+  }
+
+  /**
+   * Adds a point that moves from the next turn until its lifetime ends. Its position and
+   * force are computed on each turn.
+   *
+   * @param point the point to add
+   * @return a reference to this object
+   */
+  public GravitationalMovingSystem add(MovingGravityPoint point) {
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Adding moving gravity point: %s", point);
+    }
+    movingPoints.add(new MovingPoint(point, turn));
+    return this;
+  }
+
+  /**
+   * Bakes the fixed points into a {@link ForceField} with a resolution of 16 pixels.
+   *
+   * @return a reference to this object
+   * @see #bakeFixedPoints(double)
+   */
+  public GravitationalMovingSystem bakeFixedPoints() {
+    return bakeFixedPoints(16);
+  }
+
+  /**
+   * Bakes the fixed points into a {@link ForceField} instead of computing their forces
+   * on each turn. Only the temporary points are summed per turn.
+   * <p/>
+   * The field is baked on the first turn of the battle and kept for the next rounds,
+   * as long as the field and the fixed points are the same. The points added after the
+   * field is baked are added to it, without baking it again.
+   *
+   * @param resolution the distance between the grid nodes
+   * @return a reference to this object
+   */
+  public GravitationalMovingSystem bakeFixedPoints(double resolution) {
+    if (resolution <= 0) {
+      throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+    }
+    this.forceFieldResolution = resolution;
+    this.forceField = null;
+    return this;
+  }
+
+  /**
+   * Sums the forces of the temporary points through a {@link GravityTree}, which
+   * approximates the clusters of points that are far from the bot.
+   *
+   * @param theta the accuracy parameter of the tree, lower values are more accurate
+   * @return a reference to this object
+   */
+  public GravitationalMovingSystem approximateTemporaryPoints(double theta) {
+    this.temporaryTree = new GravityTree(theta);
     return this;
   }
 
@@ -80,30 +182,83 @@ public class GravitationalMovingSystem implements MovingSystem {
 
   @Override
   public void execute() {
-    Collection<GravityPoint> gPoints = new ArrayList<>(fixedPoints);
-    Iterator<TemporaryGravityPoint> iterator = temporaryPoints.iterator();
-    while (iterator.hasNext()) {
-      TemporaryGravityPoint temporaryGravityPoint = iterator.next();
-      GravityPoint point = temporaryGravityPoint.pull();
-      if (temporaryGravityPoint.expired()) {
-        iterator.remove();
-      } else if (!temporaryGravityPoint.delayed()) {
-        gPoints.add(point);
+    Point location = bot.location();
+    double x = location.x();
+    double y = location.y();
+    force.set(location);
+    if (forceFieldResolution > 0) {
+      if (forceField == null) {
+        forceField = bake(bot.radar().battleField());
       }
+      forceField.addForceTo(force, x, y);
+    } else {
+      for (GravityPoint point : fixedPoints) {
+        point.addForceTo(force, x, y);
+      }
+    }
+    turn++;
+    pendingPoints.advance(turn, activePoints);
+    if (temporaryTree != null) {
+      temporaryTree.clear();
     }
-    move(gPoints);
+    int i = 0;
+    while (i < activePoints.size()) {
+      ActivePoint activePoint = activePoints.get(i);
+      if (activePoint.expiry <= turn) {
+        activePoints.set(i, activePoints.get(activePoints.size() - 1));
+        activePoints.remove(activePoints.size() - 1);
+        continue;
+      }
+      if (temporaryTree != null) {
+        temporaryTree.add(activePoint.point);
+      } else {
+        activePoint.point.addForceTo(force, x, y);
+      }
+      i++;
+    }
+    if (temporaryTree != null) {
+      temporaryTree.addForceTo(force, x, y);
+    }
+    i = 0;
+    while (i < movingPoints.size()) {
+      MovingPoint movingPoint = movingPoints.get(i);
+      long tick = turn - movingPoint.start;
+      if (!movingPoint.point.isAlive(tick)) {
+        movingPoints.set(i, movingPoints.get(movingPoints.size() - 1));
+        movingPoints.remove(movingPoints.size() - 1);
+        continue;
+      }
+      movingPoint.point.addForceTo(force, tick, x, y);
+      i++;
+    }
+    move(location);
   }
 
-  private void move(Collection<GravityPoint> points) {
-    Point location = bot.location();
-    forcePoint = location;
-    for (GravityPoint point : points) {
-      forcePoint = forcePoint.plus(point.force(location));
+  private ForceField bake(Field field) {
+    BakedPoints key = bakedPoints(field);
+    ForceField baked = bakedFields.get(key);
+    if (baked == null) {
+      if (bot.isLogging(LogLevel.DEBUG)) {
+        bot.log(LogLevel.DEBUG, "Baking %d gravity points", fixedPoints.size());
+      }
+      baked = new ForceField(field, fixedPoints, forceFieldResolution);
+      bakedFields.put(key, baked);
+    }
+    return baked;
+  }
+
+  private BakedPoints bakedPoints(Field field) {
+    return new BakedPoints(field.width(), field.height(), forceFieldResolution, fixedPoints);
+  }
+
+  private void move(Point location) {
+    forcePoint = force.toPoint();
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Location: %s", location);
+      bot.log(LogLevel.DEBUG, "Forced Location: %s", forcePoint);
     }
-    bot.log("Location: %s", location);
-    bot.log("Forced Location: %s", forcePoint);
     if (isLowEnforcing()) {
-      bot.broadcast(LOW_ENFORCING, forcePoint);
+      bot.broadcast(LOW_ENFORCING_KEY, forcePoint);
       forcePoint = null;
       return;
     }
@@ -111,7 +266,7 @@ public class GravitationalMovingSystem implements MovingSystem {
   }
 
   private boolean isLowEnforcing() {
-    return bot.location().bearingTo(forcePoint).distance() <= lowEnforcing;
+    return bot.location().isNear(forcePoint, lowEnforcing);
   }
 
   @When(Events.DRAW)
@@ -125,12 +280,76 @@ public class GravitationalMovingSystem implements MovingSystem {
   @When(Events.DRAW)
   public void drawTemporaryGravityPoints(Drawer drawer) {
     if (drawTemporaryPoints) {
-      for (TemporaryGravityPoint temporaryPoint : temporaryPoints) {
-        if (!temporaryPoint.expired() && !temporaryPoint.delayed()) {
-          drawer.draw(Color.ORANGE).cross().at(temporaryPoint.point());
-        }
+      for (ActivePoint activePoint : activePoints) {
+        drawer.draw(Color.ORANGE).cross().at(activePoint.point);
       }
+      for (MovingPoint movingPoint : movingPoints) {
+        drawer.draw(Color.ORANGE).cross().at(movingPoint.point.at(turn - movingPoint.start));
+      }
+    }
+  }
+
+  private static class ActivePoint {
+
+    private final GravityPoint point;
+    private final long expiry;
+
+    private ActivePoint(GravityPoint point, long expiry) {
+      this.point = point;
+      this.expiry = expiry;
     }
+
+  }
+
+  private static class BakedPoints {
+
+    private final double width;
+    private final double height;
+    private final double resolution;
+    private final Set<GravityPoint> points;
+
+    private BakedPoints(double width, double height, double resolution,
+                        Collection<GravityPoint> points) {
+      this.width = width;
+      this.height = height;
+      this.resolution = resolution;
+      this.points = new HashSet<GravityPoint>(points);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+
+      BakedPoints that = (BakedPoints) o;
+
+      return Double.compare(that.width, width) == 0
+        && Double.compare(that.height, height) == 0
+        && Double.compare(that.resolution, resolution) == 0
+        && points.equals(that.points);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Double.hashCode(width);
+      result = 31 * result + Double.hashCode(height);
+      result = 31 * result + Double.hashCode(resolution);
+      result = 31 * result + points.hashCode();
+      return result;
+    }
+
+  }
+
+  private static class MovingPoint {
+
+    private final MovingGravityPoint point;
+    private final long start;
+
+    private MovingPoint(MovingGravityPoint point, long start) {
+      this.point = point;
+      this.start = start;
+    }
+
   }
 
 }
@@ -0,0 +1,217 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.parts.movement;
+
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Enemy;
+import tools.devnull.robobundle.Field;
+import tools.devnull.robobundle.LogLevel;
+import tools.devnull.robobundle.annotation.When;
+import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.calc.Vectors;
+import tools.devnull.robobundle.event.Events;
+import tools.devnull.robobundle.parts.MovingSystem;
+import tools.devnull.robobundle.util.Drawer;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static java.lang.Math.random;
+
+/**
+ * A moving system for melee battles that moves the bot to the least risky location
+ * around it.
+ * <p/>
+ * On each turn, a number of candidate locations are generated in a circle around the
+ * bot and scored against every known enemy. The risk of a location grows with the
+ * energy of the enemies and their closeness, and is lower for locations that take the
+ * bot in a direction perpendicular to the enemies. The recently visited locations are
+ * also penalized, so the bot does not get stuck.
+ * <p/>
+ * The current destination is kept while no candidate is clearly better, which avoids
+ * oscillating between similar locations.
+ *
+ * @author Marcelo Guimarães
+ */
+public class MinimumRiskMovingSystem implements MovingSystem {
+
+  private static final double WALL_MARGIN = 40;
+  private static final double MIN_DISTANCE = 60;
+  private static final double MAX_DISTANCE = 180;
+  private static final double VISITED_RISK = 0.1;
+  private static final double SWITCH_RATIO = 0.9;
+  private static final int VISITED_LOCATIONS = 8;
+  private static final int VISIT_INTERVAL = 5;
+
+  private final Bot bot;
+  private double[] candidateX = new double[100];
+  private double[] candidateY = new double[100];
+  private double[] enemyX = new double[10];
+  private double[] enemyY = new double[10];
+  private double[] enemyEnergy = new double[10];
+  private int enemies;
+  private double energy;
+  private final double[] visitedX = new double[VISITED_LOCATIONS];
+  private final double[] visitedY = new double[VISITED_LOCATIONS];
+  private int visited;
+  private boolean hasDestination;
+  private double destinationX;
+  private double destinationY;
+  private Point destination;
+
+  public MinimumRiskMovingSystem(Bot bot) {
+    this.bot = bot;
+  }
+
+  /**
+   * Sets the number of candidate locations scored on each turn. The default is 100.
+   *
+   * @param count the number of candidates
+   * @return a reference to this object
+   */
+  public MinimumRiskMovingSystem candidates(int count) {
+    this.candidateX = new double[count];
+    this.candidateY = new double[count];
+    return this;
+  }
+
+  @Override
+  public void execute() {
+    Point location = bot.location();
+    double x = location.x();
+    double y = location.y();
+    loadEnemies();
+    energy = Math.max(bot.body().energy(), 1);
+    if (enemies == 0) {
+      return;
+    }
+    if (bot.radar().time() % VISIT_INTERVAL == 0) {
+      visitedX[visited % VISITED_LOCATIONS] = x;
+      visitedY[visited % VISITED_LOCATIONS] = y;
+      visited++;
+    }
+    int candidates = generateCandidates(x, y);
+
+    int best = -1;
+    double bestRisk = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < candidates; i++) {
+      double risk = risk(x, y, candidateX[i], candidateY[i]);
+      if (risk < bestRisk) {
+        bestRisk = risk;
+        best = i;
+      }
+    }
+    if (best < 0) {
+      return;
+    }
+    if (!hasDestination
+      || Vectors.distanceSquared(x, y, destinationX, destinationY) < MIN_DISTANCE * MIN_DISTANCE / 4
+      || bestRisk < SWITCH_RATIO * risk(x, y, destinationX, destinationY)) {
+      destinationX = candidateX[best];
+      destinationY = candidateY[best];
+      destination = new Point(destinationX, destinationY);
+      hasDestination = true;
+    }
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Destination: %s (risk %.6f)", destination, bestRisk);
+    }
+    bot.body().moveTo(destination, Vectors.distance(x, y, destinationX, destinationY));
+  }
+
+  @When(Events.DRAW)
+  public void drawDestination(Drawer drawer) {
+    if (destination != null) {
+      drawer.draw(Color.GREEN).marker().at(destination);
+    }
+  }
+
+  private void loadEnemies() {
+    Collection<Enemy> knownEnemies = bot.radar().knownEnemies();
+    if (knownEnemies.size() > enemyX.length) {
+      int capacity = knownEnemies.size() * 2;
+      enemyX = Arrays.copyOf(enemyX, capacity);
+      enemyY = Arrays.copyOf(enemyY, capacity);
+      enemyEnergy = Arrays.copyOf(enemyEnergy, capacity);
+    }
+    enemies = 0;
+    for (Enemy enemy : knownEnemies) {
+      Point location = enemy.location();
+      enemyX[enemies] = location.x();
+      enemyY[enemies] = location.y();
+      enemyEnergy[enemies] = enemy.energy();
+      enemies++;
+    }
+  }
+
+  // candidates are spread in a circle, limited by half the distance to the closest enemy
+  private int generateCandidates(double x, double y) {
+    double closest = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < enemies; i++) {
+      closest = Math.min(closest, Vectors.distanceSquared(x, y, enemyX[i], enemyY[i]));
+    }
+    double distance = Math.max(MIN_DISTANCE, Math.min(MAX_DISTANCE, Math.sqrt(closest) / 2));
+    Field field = bot.radar().battleField();
+    double maxX = field.width() - WALL_MARGIN;
+    double maxY = field.height() - WALL_MARGIN;
+    double step = 2 * Math.PI / candidateX.length;
+    double offset = random() * step;
+    int count = 0;
+    for (int i = 0; i < candidateX.length; i++) {
+      double angle = offset + i * step;
+      double length = distance * (0.5 + random() / 2);
+      double cx = x + Vectors.projectX(angle, length);
+      double cy = y + Vectors.projectY(angle, length);
+      if (cx >= WALL_MARGIN && cx <= maxX && cy >= WALL_MARGIN && cy <= maxY) {
+        candidateX[count] = cx;
+        candidateY[count] = cy;
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private double risk(double x, double y, double cx, double cy) {
+    double moveX = cx - x;
+    double moveY = cy - y;
+    double moveLength = Vectors.length(moveX, moveY);
+    double risk = 0;
+    for (int i = 0; i < enemies; i++) {
+      double toEnemyX = enemyX[i] - x;
+      double toEnemyY = enemyY[i] - y;
+      // the cosine between the movement and the direction of the enemy
+      double cos = (moveX * toEnemyX + moveY * toEnemyY)
+        / (moveLength * Vectors.length(toEnemyX, toEnemyY) + 1e-9);
+      double strength = Math.min(enemyEnergy[i] / energy, 2);
+      risk += strength * (1 + Math.abs(cos))
+        / Vectors.distanceSquared(cx, cy, enemyX[i], enemyY[i]);
+    }
+    int count = Math.min(visited, VISITED_LOCATIONS);
+    for (int i = 0; i < count; i++) {
+      risk += VISITED_RISK / (Vectors.distanceSquared(cx, cy, visitedX[i], visitedY[i]) + 1);
+    }
+    return risk;
+  }
+
+}
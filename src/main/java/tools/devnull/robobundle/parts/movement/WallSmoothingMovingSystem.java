@@ -0,0 +1,171 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.parts.movement;
+
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Field;
+import tools.devnull.robobundle.calc.Angle;
+import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.calc.Vectors;
+import tools.devnull.robobundle.parts.HeadingFilter;
+import tools.devnull.robobundle.parts.MovingSystem;
+import robocode.util.Utils;
+
+/**
+ * A moving system that keeps another one away from the walls.
+ * <p/>
+ * While the wrapped system executes, the direction of the movements requested to the
+ * {@link tools.devnull.robobundle.parts.Body body} is {@link
+ * tools.devnull.robobundle.parts.Body#filterHeading(HeadingFilter) filtered}: a stick
+ * is projected from the bot in that direction and, if its end is outside the field,
+ * the direction is rotated to the closest one that keeps the stick inside it.
+ * <p/>
+ * Each wall close to the bot forbids an arc of directions centered on the wall, so the
+ * closest allowed direction is found by jumping over the arcs, without searching: it
+ * takes at most one <code>acos</code> per wall and a few comparisons per turn.
+ * <p/>
+ * The wrapped system is plugged in the bot, so its listeners keep working.
+ *
+ * @author Marcelo Guimarães
+ */
+public class WallSmoothingMovingSystem implements MovingSystem, HeadingFilter {
+
+  private static final double TWO_PI = 2 * Math.PI;
+
+  // the directions pointing to the east, west, north and south walls
+  private static final double[] WALL_DIRECTIONS = {Math.PI / 2, -Math.PI / 2, 0, Math.PI};
+
+  // pushes the result inside the allowed directions, away from the rounding errors
+  private static final double EPSILON = 1e-9;
+
+  private final Bot bot;
+  private final MovingSystem movingSystem;
+  private double stick = 160;
+  private double margin = 20;
+  private final double[] forbiddenArc = new double[WALL_DIRECTIONS.length];
+
+  public WallSmoothingMovingSystem(Bot bot, MovingSystem movingSystem) {
+    this.bot = bot;
+    this.movingSystem = bot.plug(movingSystem);
+  }
+
+  /**
+   * Sets the length of the stick that must stay inside the field. The default is 160.
+   *
+   * @param length the stick length
+   * @return a reference to this object
+   */
+  public WallSmoothingMovingSystem stick(double length) {
+    this.stick = length;
+    return this;
+  }
+
+  /**
+   * Sets the distance to the walls that the stick must keep. The default is 20.
+   *
+   * @param distance the distance to the walls
+   * @return a reference to this object
+   */
+  public WallSmoothingMovingSystem margin(double distance) {
+    this.margin = distance;
+    return this;
+  }
+
+  @Override
+  public void execute() {
+    bot.body().filterHeading(this);
+    try {
+      movingSystem.execute();
+    } finally {
+      bot.body().filterHeading(null);
+    }
+  }
+
+  @Override
+  public Angle filter(Point location, Angle heading) {
+    Field field = bot.radar().battleField();
+    double maxX = field.width() - margin;
+    double maxY = field.height() - margin;
+    double x = location.x();
+    double y = location.y();
+    double stickX = Vectors.projectX(heading.radians(), stick);
+    double stickY = Vectors.projectY(heading.radians(), stick);
+    if (fits(x + stickX, y + stickY, maxX, maxY)) {
+      return heading;
+    }
+    forbiddenArc[0] = forbiddenArc(maxX - x);
+    forbiddenArc[1] = forbiddenArc(x - margin);
+    forbiddenArc[2] = forbiddenArc(maxY - y);
+    forbiddenArc[3] = forbiddenArc(y - margin);
+    // the right side uses the headings convention (clockwise)
+    double right = rotation(heading.radians(), 1);
+    double left = rotation(heading.radians(), -1);
+    if (right <= left) {
+      return right <= Math.PI ? heading.plus(right) : heading;
+    }
+    return left <= Math.PI ? heading.minus(left) : heading;
+  }
+
+  // half of the arc of directions that take the stick beyond a wall at the given
+  // distance, or a negative value if the stick can't reach the wall
+  private double forbiddenArc(double distance) {
+    if (distance >= stick) {
+      return -1;
+    }
+    return Math.acos(Math.max(-1, distance / stick));
+  }
+
+  // the smallest rotation to the given side that leaves every forbidden arc
+  private double rotation(double heading, int side) {
+    double rotation = 0;
+    for (int i = 0; i <= WALL_DIRECTIONS.length; i++) {
+      int wall = forbiddingWall(heading + side * rotation);
+      if (wall < 0) {
+        return rotation;
+      }
+      double offset = Utils.normalRelativeAngle(heading + side * rotation - WALL_DIRECTIONS[wall]);
+      // jumps to the end of the arc
+      rotation += forbiddenArc[wall] - side * offset + EPSILON;
+      if (rotation > TWO_PI) {
+        break;
+      }
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  private int forbiddingWall(double direction) {
+    for (int wall = 0; wall < WALL_DIRECTIONS.length; wall++) {
+      if (forbiddenArc[wall] >= 0
+        && Math.abs(Utils.normalRelativeAngle(direction - WALL_DIRECTIONS[wall])) < forbiddenArc[wall]) {
+        return wall;
+      }
+    }
+    return -1;
+  }
+
+  private boolean fits(double x, double y, double maxX, double maxY) {
+    return x >= margin && x <= maxX && y >= margin && y <= maxY;
+  }
+
+}
@@ -0,0 +1,375 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.parts.movement;
+
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Enemy;
+import tools.devnull.robobundle.Field;
+import tools.devnull.robobundle.LogLevel;
+import tools.devnull.robobundle.annotation.When;
+import tools.devnull.robobundle.calc.MovementSimulator;
+import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.calc.Vectors;
+import tools.devnull.robobundle.event.EnemyFireEvent;
+import tools.devnull.robobundle.event.Events;
+import tools.devnull.robobundle.parts.MovingSystem;
+import tools.devnull.robobundle.util.Drawer;
+import robocode.Bullet;
+import robocode.HitByBulletEvent;
+import robocode.Rules;
+import robocode.util.Utils;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A moving system that surfs the waves of the bullets fired by the enemies.
+ * <p/>
+ * The shots are the ones detected by the {@link tools.devnull.robobundle.plugin.Dodger}
+ * (it must be plugged). Each shot becomes a wave that expands from the enemy location
+ * at the bullet speed. When a bullet hits the bot, the angle of the hit relative to the
+ * wave is recorded in the statistics of the enemy, as a guess factor. The statistics are
+ * kept for the whole battle, since robocode creates the robot again on each round.
+ * <p/>
+ * On each turn, the bot movement is simulated for orbiting the closest wave in each
+ * direction and for stopping, until the waves pass by the bot. The option that crosses
+ * the waves in the least dangerous guess factors is used. The cost of each turn is
+ * bounded by the {@link #surfing(int) number of waves surfed} and the {@link
+ * #simulating(int) number of ticks simulated}, regardless of the number of enemies.
+ * <p/>
+ * The bot is not moved while there are no waves to surf, so this system should be used
+ * with a condition or together with another system.
+ *
+ * @author Marcelo Guimarães
+ */
+public class WaveSurfingMovingSystem implements MovingSystem {
+
+  private static final int BINS = 31;
+  private static final int MIDDLE_BIN = BINS / 2;
+  private static final double ROLLING_DEPTH = 10;
+  private static final int MAX_TRACKED_WAVES = 64;
+  private static final double ORBIT_DISTANCE = 100;
+  private static final double WALL_MARGIN = 36;
+
+  // shared by the rounds of the battle
+  private static final Map<String, double[]> statistics =
+    new ConcurrentHashMap<String, double[]>();
+
+  private final Bot bot;
+  private final List<Wave> waves = new ArrayList<Wave>();
+  private Wave[] surfedWaves = new Wave[3];
+  private int[] hitTicks = new int[3];
+  private final OrbitPolicy policy = new OrbitPolicy();
+  private MovementSimulator simulator;
+  private int maxTicks = 60;
+  private boolean drawWaves;
+
+  public WaveSurfingMovingSystem(Bot bot) {
+    this.bot = bot;
+  }
+
+  /**
+   * Sets the number of waves, the ones closest to hit the bot, that are considered
+   * on each turn. The default is 3.
+   *
+   * @param waves the number of waves to surf
+   * @return a reference to this object
+   */
+  public WaveSurfingMovingSystem surfing(int waves) {
+    this.surfedWaves = new Wave[waves];
+    this.hitTicks = new int[waves];
+    return this;
+  }
+
+  /**
+   * Sets the max number of ticks simulated for each option. The default is 60.
+   *
+   * @param ticks the max number of ticks to simulate
+   * @return a reference to this object
+   */
+  public WaveSurfingMovingSystem simulating(int ticks) {
+    this.maxTicks = ticks;
+    return this;
+  }
+
+  public WaveSurfingMovingSystem drawWaves() {
+    this.drawWaves = true;
+    return this;
+  }
+
+  @When(Events.ENEMY_FIRE)
+  public void onEnemyFire(EnemyFireEvent event) {
+    Enemy enemy = event.enemy();
+    Point origin = enemy.location();
+    Point location = bot.location();
+    double directAngle = Vectors.bearing(origin.x(), origin.y(), location.x(), location.y());
+    double lateralVelocity = bot.body().velocity()
+      * Math.sin(bot.body().heading().radians() - directAngle);
+    if (waves.size() == MAX_TRACKED_WAVES) {
+      waves.remove(0);
+    }
+    // the energy drop is seen one tick after the bullet is fired
+    waves.add(new Wave(
+      statisticsFor(enemy.name()), origin.x(), origin.y(), bot.radar().time() - 1,
+      event.bulletSpeed(), event.bulletPower(), directAngle,
+      lateralVelocity < 0 ? -1 : 1
+    ));
+  }
+
+  @When(Events.HIT_BY_BULLET)
+  public void onHitByBullet(HitByBulletEvent event) {
+    Bullet bullet = event.getBullet();
+    double[] enemyStatistics = statistics.get(event.getName());
+    if (enemyStatistics == null) {
+      return;
+    }
+    long time = bot.radar().time();
+    for (int i = 0; i < waves.size(); i++) {
+      Wave wave = waves.get(i);
+      double distance = Vectors.distance(wave.originX, wave.originY, bullet.getX(), bullet.getY());
+      if (wave.statistics == enemyStatistics
+        && Math.abs(wave.speed - bullet.getVelocity()) < 0.1
+        && Math.abs(wave.radius(time) - distance) < 50) {
+        record(wave, wave.bin(bullet.getX(), bullet.getY()));
+        waves.remove(i);
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void execute() {
+    long time = bot.radar().time();
+    Point location = bot.location();
+    selectWaves(time, location);
+    if (surfedWaves[0] == null) {
+      return;
+    }
+    if (simulator == null) {
+      simulator = new MovementSimulator(bot.radar().battleField());
+    }
+    double heading = bot.body().heading().radians();
+    double velocity = bot.body().velocity();
+    Wave closest = surfedWaves[0];
+    double bestDanger = Double.POSITIVE_INFINITY;
+    int bestDirection = 0;
+    for (int direction = -1; direction <= 1; direction++) {
+      simulator.reset(location.x(), location.y(), heading, velocity);
+      policy.orbit(closest, direction);
+      double danger = danger(time);
+      if (danger < bestDanger) {
+        bestDanger = danger;
+        bestDirection = direction;
+      }
+    }
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Surfing direction: %d (danger %.4f)", bestDirection, bestDanger);
+    }
+    if (bestDirection == 0) {
+      bot.body().move(0);
+    } else {
+      simulator.reset(location.x(), location.y(), heading, velocity);
+      policy.orbit(closest, bestDirection);
+      policy.steer(simulator);
+      bot.body().moveTo(new Point(policy.targetX, policy.targetY), ORBIT_DISTANCE);
+    }
+  }
+
+  @When(Events.DRAW)
+  public void draw(Drawer drawer) {
+    if (drawWaves) {
+      long time = bot.radar().time();
+      for (Wave wave : waves) {
+        drawer.draw(Color.CYAN).circle()
+          .ofSize((int) (2 * wave.radius(time)))
+          .at(new Point(wave.originX, wave.originY));
+      }
+    }
+  }
+
+  // removes the waves that passed by the bot and selects the closest ones to hit it
+  private void selectWaves(long time, Point location) {
+    for (int i = 0; i < surfedWaves.length; i++) {
+      surfedWaves[i] = null;
+    }
+    for (int i = waves.size() - 1; i >= 0; i--) {
+      Wave wave = waves.get(i);
+      double remaining = wave.remaining(time, location.x(), location.y());
+      if (remaining < -50) {
+        waves.remove(i);
+      } else if (remaining > 0) {
+        insertSorted(wave, remaining / wave.speed, time, location);
+      }
+    }
+  }
+
+  private void insertSorted(Wave wave, double ticks, long time, Point location) {
+    for (int i = 0; i < surfedWaves.length; i++) {
+      Wave current = surfedWaves[i];
+      if (current == null) {
+        surfedWaves[i] = wave;
+        return;
+      }
+      double currentTicks = current.remaining(time, location.x(), location.y()) / current.speed;
+      if (ticks < currentTicks) {
+        System.arraycopy(surfedWaves, i, surfedWaves, i + 1, surfedWaves.length - i - 1);
+        surfedWaves[i] = wave;
+        return;
+      }
+    }
+  }
+
+  // simulates the policy until the surfed waves pass by the bot
+  private double danger(long time) {
+    int pending = 0;
+    for (int i = 0; i < surfedWaves.length; i++) {
+      hitTicks[i] = -1;
+      if (surfedWaves[i] != null) {
+        pending++;
+      }
+    }
+    double danger = 0;
+    while (pending > 0 && simulator.time() < maxTicks) {
+      policy.steer(simulator);
+      simulator.tick();
+      long now = time + simulator.time();
+      for (int i = 0; i < surfedWaves.length; i++) {
+        Wave wave = surfedWaves[i];
+        if (wave != null && hitTicks[i] < 0
+          && wave.remaining(now, simulator.x(), simulator.y()) <= 0) {
+          hitTicks[i] = simulator.time();
+          pending--;
+          danger += danger(wave, simulator.time());
+        }
+      }
+    }
+    // the waves that did not pass in the simulated time are taken at the last position
+    for (int i = 0; i < surfedWaves.length; i++) {
+      if (surfedWaves[i] != null && hitTicks[i] < 0) {
+        danger += danger(surfedWaves[i], Math.max(simulator.time(), 1));
+      }
+    }
+    return danger;
+  }
+
+  // closer waves are more dangerous, since there is less time to dodge them
+  private double danger(Wave wave, int ticks) {
+    return wave.statistics[wave.bin(simulator.x(), simulator.y())] * wave.power / ticks;
+  }
+
+  private double[] statisticsFor(String enemy) {
+    double[] enemyStatistics = statistics.get(enemy);
+    if (enemyStatistics == null) {
+      enemyStatistics = new double[BINS];
+      // assumes head-on targeting until the first hit
+      enemyStatistics[MIDDLE_BIN] = 1;
+      statistics.put(enemy, enemyStatistics);
+    }
+    return enemyStatistics;
+  }
+
+  private void record(Wave wave, int hitBin) {
+    double[] enemyStatistics = wave.statistics;
+    for (int i = 0; i < BINS; i++) {
+      double value = 1 / ((i - hitBin) * (i - hitBin) + 1.0);
+      enemyStatistics[i] = (enemyStatistics[i] * ROLLING_DEPTH + value) / (ROLLING_DEPTH + 1);
+    }
+  }
+
+  private class OrbitPolicy implements MovementSimulator.Policy {
+
+    private Wave wave;
+    private int direction;
+    private double targetX;
+    private double targetY;
+
+    private void orbit(Wave wave, int direction) {
+      this.wave = wave;
+      this.direction = direction;
+    }
+
+    @Override
+    public void steer(MovementSimulator simulator) {
+      if (direction == 0) {
+        simulator.ahead(0);
+        return;
+      }
+      Field field = bot.radar().battleField();
+      double angle = Vectors.bearing(wave.originX, wave.originY, simulator.x(), simulator.y())
+        + direction * Math.PI / 2;
+      targetX = Math.max(WALL_MARGIN, Math.min(
+        simulator.x() + Vectors.projectX(angle, ORBIT_DISTANCE), field.width() - WALL_MARGIN));
+      targetY = Math.max(WALL_MARGIN, Math.min(
+        simulator.y() + Vectors.projectY(angle, ORBIT_DISTANCE), field.height() - WALL_MARGIN));
+      simulator.moveTo(targetX, targetY);
+    }
+
+  }
+
+  private static class Wave {
+
+    private final double[] statistics;
+    private final double originX;
+    private final double originY;
+    private final long fireTime;
+    private final double speed;
+    private final double power;
+    private final double directAngle;
+    private final int direction;
+    private final double maxEscapeAngle;
+
+    private Wave(double[] statistics, double originX, double originY, long fireTime,
+                 double speed, double power, double directAngle, int direction) {
+      this.statistics = statistics;
+      this.originX = originX;
+      this.originY = originY;
+      this.fireTime = fireTime;
+      this.speed = speed;
+      this.power = power;
+      this.directAngle = directAngle;
+      this.direction = direction;
+      this.maxEscapeAngle = Math.asin(Rules.MAX_VELOCITY / speed);
+    }
+
+    private double radius(long time) {
+      return (time - fireTime) * speed;
+    }
+
+    // the distance the wave still has to travel to reach the given location
+    private double remaining(long time, double x, double y) {
+      return Vectors.distance(originX, originY, x, y) - radius(time);
+    }
+
+    private int bin(double x, double y) {
+      double offset = Utils.normalRelativeAngle(Vectors.bearing(originX, originY, x, y) - directAngle);
+      double guessFactor = Math.max(-1, Math.min(1, offset / maxEscapeAngle)) * direction;
+      return (int) Math.round((guessFactor + 1) * MIDDLE_BIN);
+    }
+
+  }
+
+}
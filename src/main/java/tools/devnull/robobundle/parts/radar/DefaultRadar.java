@@ -27,6 +27,7 @@ import tools.devnull.robobundle.*;
 import tools.devnull.robobundle.annotation.When;
 import tools.devnull.robobundle.calc.Angle;
 import tools.devnull.robobundle.event.EnemyScannedEvent;
+import tools.devnull.robobundle.event.EventKey;
 import tools.devnull.robobundle.event.Events;
 import tools.devnull.robobundle.event.TargetSetEvent;
 import tools.devnull.robobundle.event.TargetUnsetEvent;
@@ -116,13 +117,13 @@ public class DefaultRadar extends BasePart implements Radar {
 
   public void setTarget(Enemy e) {
     this.target = e;
-    this.bot.broadcast(Events.TARGET_SET, new TargetSetEvent(target));
+    this.bot.broadcast(EventKey.TARGET_SET, new TargetSetEvent(target));
   }
 
   @Override
   public void unsetTarget() {
     this.target = null;
-    this.bot.broadcast(Events.TARGET_UNSET, new TargetUnsetEvent(target));
+    this.bot.broadcast(EventKey.TARGET_UNSET, new TargetUnsetEvent(target));
   }
 
   @Override
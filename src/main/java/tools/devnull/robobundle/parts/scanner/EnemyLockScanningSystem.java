@@ -25,6 +25,7 @@ package tools.devnull.robobundle.parts.scanner;
 
 import tools.devnull.robobundle.Bot;
 import tools.devnull.robobundle.Enemy;
+import tools.devnull.robobundle.LogLevel;
 import tools.devnull.robobundle.annotation.When;
 import tools.devnull.robobundle.calc.Angle;
 import tools.devnull.robobundle.condition.LockCondition;
@@ -71,9 +72,13 @@ public class EnemyLockScanningSystem implements ScanningSystem {
   @When(ENEMY_SCANNED)
   public void onEnemyScanned(EnemyScannedEvent event) {
     Enemy enemy = event.enemy();
-    bot.log("Enemy spotted at %s", enemy.position());
+    if (bot.isLogging(LogLevel.DEBUG)) {
+      bot.log(LogLevel.DEBUG, "Enemy spotted at %s", enemy.position());
+    }
     if (canLock(enemy)) {
-      bot.log("Locking %s", enemy.name());
+      if (bot.isLogging(LogLevel.DEBUG)) {
+        bot.log(LogLevel.DEBUG, "Locking %s", enemy.name());
+      }
       bot.radar().setTarget(enemy);
       changeTarget = false;
     }
@@ -27,6 +27,7 @@ import tools.devnull.robobundle.Bot;
 import tools.devnull.robobundle.Enemy;
 import tools.devnull.robobundle.annotation.When;
 import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.event.EventKey;
 import tools.devnull.robobundle.event.Events;
 import tools.devnull.robobundle.util.Drawer;
 
@@ -57,7 +58,7 @@ public class Avoider {
   public void checkWalls() {
     wallPoint = bot.radar().battleField().closestBorderPoint(bot.location());
     if (isBotNearTo(wallPoint)) {
-      bot.broadcast(Events.NEAR_TO_WALL, wallPoint);
+      bot.broadcast(EventKey.NEAR_TO_WALL, wallPoint);
     }
   }
 
@@ -67,14 +68,14 @@ public class Avoider {
     closestEnemies.clear();
     for (Enemy enemy : enemies) {
       if (isBotNearTo(enemy.location())) {
-        bot.broadcast(Events.NEAR_TO_ENEMY, enemy);
+        bot.broadcast(EventKey.NEAR_TO_ENEMY, enemy);
         closestEnemies.add(enemy);
       }
     }
   }
 
   private boolean isBotNearTo(Point point) {
-    return point.bearingTo(bot.location()).distance() <= threshold;
+    return point.isNear(bot.location(), threshold);
   }
 
   @When(Events.DRAW)
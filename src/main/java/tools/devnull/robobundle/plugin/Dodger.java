@@ -27,6 +27,7 @@ import tools.devnull.robobundle.Bot;
 import tools.devnull.robobundle.Enemy;
 import tools.devnull.robobundle.annotation.When;
 import tools.devnull.robobundle.event.EnemyFireEvent;
+import tools.devnull.robobundle.event.EventKey;
 import tools.devnull.robobundle.event.Events;
 import robocode.BulletHitEvent;
 import robocode.Rules;
@@ -60,7 +61,7 @@ public class Dodger {
     //assumes a bullet fired based on the energy differences
     if (bulletPower >= Rules.MIN_BULLET_POWER && bulletPower <= Rules.MAX_BULLET_POWER) {
       bot.broadcast(
-        Events.ENEMY_FIRE, new EnemyFireEvent(enemy, bulletPower)
+        EventKey.ENEMY_FIRE, new EnemyFireEvent(enemy, bulletPower)
       );
     }
   }
@@ -59,7 +59,12 @@ public class EnemyTracker {
   }
 
   public Condition enemyIsTurning() {
-    return () -> dataFor(bot.radar().target()).isTurning();
+    return () -> {
+      Enemy target = bot.radar().target();
+      Enemy last = recentScan(target, 0);
+      Enemy previous = recentScan(target, 1);
+      return last != null && previous != null && !last.heading().equals(previous.heading());
+    };
   }
 
   @When(Events.ENEMY_SCANNED)
@@ -75,6 +80,33 @@ public class EnemyTracker {
     }
   }
 
+  /**
+   * Returns a recent scan of the given enemy without copying its history.
+   *
+   * @param enemy the enemy
+   * @param index the index of the scan, starting with zero for the last one
+   * @return the scan or <code>null</code> if there is no such scan
+   */
+  public Enemy recentScan(Enemy enemy, int index) {
+    if (enemy == null) {
+      return null;
+    }
+    List<Enemy> history = enemyData.get(enemy.name());
+    if (history == null || index >= history.size()) {
+      return null;
+    }
+    // the history is a linked list, so this walks only from the tail
+    return history.get(history.size() - 1 - index);
+  }
+
+  /**
+   * @return the number of scans stored for the given enemy
+   */
+  public int historySize(Enemy enemy) {
+    List<Enemy> history = enemy == null ? null : enemyData.get(enemy.name());
+    return history == null ? 0 : history.size();
+  }
+
   public EnemyData dataFor(final Enemy enemy) {
     return () -> {
       if (enemy == null || !enemyData.containsKey(enemy.name())) {
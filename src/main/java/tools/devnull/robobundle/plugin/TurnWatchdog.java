@@ -0,0 +1,187 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.plugin;
+
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.annotation.When;
+import tools.devnull.robobundle.event.EventKey;
+import tools.devnull.robobundle.event.Events;
+
+/**
+ * A plugin that measures the time spent by the robot in each turn and broadcasts an
+ * {@link Events#OVER_BUDGET} event (with this watchdog as the argument) when the turns
+ * are getting close to the time budget, so the parts can degrade their work before the
+ * engine starts skipping turns.
+ * <p/>
+ * The turn is measured between the {@link Events#TURN_STARTED} and the
+ * {@link Events#TURN_ENDED} events. The robocode callbacks processed inside
+ * <code>execute()</code> are not part of the measured time, so each
+ * {@link Events#SKIPPED_TURN skipped turn} lowers the current budget by a fixed factor,
+ * never below half of the configured budget. The current budget then recovers towards
+ * the configured one on each turn that is not skipped, so a single slow turn (like a
+ * garbage collection) doesn't keep the robot degraded for the rest of the battle.
+ *
+ * @author Marcelo Guimarães
+ */
+public class TurnWatchdog {
+
+  private static final double SMOOTHING = 0.1;
+  private static final double RECOVERY = 0.02;
+  private static final double SKIP_FACTOR = 0.8;
+  private static final double MIN_BUDGET = 0.5;
+
+  private final Bot bot;
+  private final long[] window = new long[32];
+
+  private long budget = 2000000;
+  private double threshold = 0.75;
+  private double currentBudget = budget;
+
+  private int windowIndex;
+  private long turnStart;
+  private long lastTurn;
+  private double average;
+  private int skippedTurns;
+
+  public TurnWatchdog(Bot bot) {
+    this.bot = bot;
+  }
+
+  /**
+   * Sets the time that a turn can take without being skipped. The default budget is
+   * 2 milliseconds.
+   *
+   * @param millis the turn budget in milliseconds
+   * @return a reference to this object
+   */
+  public TurnWatchdog budget(double millis) {
+    this.budget = (long) (millis * 1000000);
+    this.currentBudget = budget;
+    return this;
+  }
+
+  /**
+   * Sets the fraction of the budget that should trigger an {@link Events#OVER_BUDGET}
+   * event. The default threshold is 0.75.
+   *
+   * @param fraction the fraction of the budget
+   * @return a reference to this object
+   */
+  public TurnWatchdog warnAt(double fraction) {
+    this.threshold = fraction;
+    return this;
+  }
+
+  @When(Events.TURN_STARTED)
+  public void startTurn() {
+    turnStart = System.nanoTime();
+  }
+
+  @When(Events.TURN_ENDED)
+  public void endTurn() {
+    if (turnStart == 0) {
+      return;
+    }
+    lastTurn = System.nanoTime() - turnStart;
+    average = average == 0 ? lastTurn : average + SMOOTHING * (lastTurn - average);
+    window[windowIndex] = lastTurn;
+    windowIndex = (windowIndex + 1) % window.length;
+    currentBudget += RECOVERY * (budget - currentBudget);
+    if (isOverBudget()) {
+      bot.broadcast(EventKey.OVER_BUDGET, this);
+    }
+  }
+
+  @When(Events.SKIPPED_TURN)
+  public void turnSkipped() {
+    skippedTurns++;
+    // the real limit is lower than the configured one, at least for now
+    currentBudget = Math.max(budget * MIN_BUDGET, currentBudget * SKIP_FACTOR);
+    bot.broadcast(EventKey.OVER_BUDGET, this);
+  }
+
+  /**
+   * @return <code>true</code> if the last turn or the average turn took more than the
+   * threshold of the budget
+   */
+  public boolean isOverBudget() {
+    double limit = threshold * currentBudget;
+    return lastTurn > limit || average > limit;
+  }
+
+  /**
+   * @return the fraction of the budget taken by the average turn
+   */
+  public double load() {
+    return average / currentBudget;
+  }
+
+  /**
+   * @return the current turn budget in nanoseconds, which is lowered by the skipped
+   * turns and recovers towards the {@link #configuredBudget() configured budget}
+   */
+  public long budget() {
+    return (long) currentBudget;
+  }
+
+  /**
+   * @return the configured turn budget in nanoseconds
+   */
+  public long configuredBudget() {
+    return budget;
+  }
+
+  /**
+   * @return the time taken by the last turn in nanoseconds
+   */
+  public long lastTurn() {
+    return lastTurn;
+  }
+
+  /**
+   * @return the exponential moving average of the turn times in nanoseconds
+   */
+  public double average() {
+    return average;
+  }
+
+  /**
+   * @return the longest turn time in nanoseconds among the recent turns
+   */
+  public long peak() {
+    long peak = 0;
+    for (long time : window) {
+      peak = Math.max(peak, time);
+    }
+    return peak;
+  }
+
+  /**
+   * @return the number of turns skipped by the engine
+   */
+  public int skippedTurns() {
+    return skippedTurns;
+  }
+
+}
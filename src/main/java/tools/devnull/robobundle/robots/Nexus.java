@@ -29,12 +29,16 @@ import tools.devnull.robobundle.BaseBot;
 import tools.devnull.robobundle.Enemy;
 import tools.devnull.robobundle.Field;
 import tools.devnull.robobundle.annotation.When;
+import tools.devnull.robobundle.calc.BulletPath;
 import tools.devnull.robobundle.calc.BulletTrajectory;
 import tools.devnull.robobundle.calc.Point;
 import tools.devnull.robobundle.condition.BotConditions;
 import tools.devnull.robobundle.condition.StrengthBasedLockCondition;
+import tools.devnull.robobundle.event.DefaultEventRegistry;
 import tools.devnull.robobundle.event.EnemyFireEvent;
 import tools.devnull.robobundle.event.EnemyScannedEvent;
+import tools.devnull.robobundle.event.EventKey;
+import tools.devnull.robobundle.event.EventRegistry;
 import tools.devnull.robobundle.parts.aiming.LinearPredictionAimingSystem;
 import tools.devnull.robobundle.parts.firing.AccuracyBasedFiringSystem;
 import tools.devnull.robobundle.parts.movement.GravitationalMovingSystem;
@@ -79,6 +83,8 @@ public class Nexus extends BaseBot {
   private int wallGPointsDistance = 40;
   private int avoidDistance = 100;
 
+  private int bulletGPointsWeight = 5;
+
   private int fireSkipToChangeTarget = 50;
 
   private int hitByBulletUntilUnlock = 3;
@@ -95,6 +101,13 @@ public class Nexus extends BaseBot {
 
   private GravitationalMovingSystem gravitationalMovingSystem;
 
+  @Override
+  protected EventRegistry createEventRegistry() {
+    return new DefaultEventRegistry(this).compileListeners()
+        .deferLatest(EventKey.NEAR_TO_WALL)
+        .defer(EventKey.NEAR_TO_ENEMY, args -> ((Enemy) args[0]).name());
+  }
+
   protected void configure() {
     body().setColor(new Color(39, 40, 34));
     gun().setColor(new Color(249, 38, 114));
@@ -167,20 +180,18 @@ public class Nexus extends BaseBot {
     Enemy enemy = event.enemy();
     log("Enemy %s probably fired a bullet at %s. Adding anti-gravity pull.",
         enemy.name(), enemy.position());
-    List<Point> bulletTrajectory = new BulletTrajectory(radar().battleField())
-        .from(enemy.location()).to(location());
-    int duration = 5;
-    int delay = 0;
-    int speed = (int) Math.floor(event.bulletSpeed() / 4);
-    for (int i = speed * 3; i < bulletTrajectory.size(); i += speed) {
-      gravitationalMovingSystem.add(
-          antiGravityPoint()
-              .at(bulletTrajectory.get(i))
-              .strong()
-              .during(duration)
-              .delay(delay++)
-      );
-    }
+    BulletPath bulletPath = new BulletTrajectory(radar().battleField())
+        .from(enemy.location()).path(location(), event.bulletSpeed());
+    // a single point follows the bullet until it leaves the field, weighing as much as
+    // the five strong points that were active at once along the bullet path
+    gravitationalMovingSystem.add(
+        antiGravityPoint()
+            .at(enemy.location())
+            .times(bulletGPointsWeight)
+            .strong()
+            .moving(bulletPath.heading(), event.bulletSpeed(),
+                (int) Math.ceil(bulletPath.exitTime()))
+    );
   }
 
   @When(HIT_ROBOT)
@@ -39,6 +39,7 @@ public class GravityPointBuilder {
 
   private Point point;
   private int mod;
+  private double times = 1;
 
   private GravityPointBuilder(int mod) {
     this.mod = mod;
@@ -49,6 +50,18 @@ public class GravityPointBuilder {
     return this;
   }
 
+  /**
+   * Multiplies the value of the point, so it weighs as much as the given number of
+   * points with the same strength.
+   *
+   * @param times the number of points
+   * @return a reference to this object
+   */
+  public GravityPointBuilder times(double times) {
+    this.times = times;
+    return this;
+  }
+
   public GravityPoint weakest() {
     return withValue(WEAKEST_VALUE);
   }
@@ -70,7 +83,7 @@ public class GravityPointBuilder {
   }
 
   public GravityPoint withValue(double value) {
-    return new GravityPoint(point, mod * value);
+    return new GravityPoint(point, mod * times * value);
   }
 
   public static GravityPointBuilder antiGravityPoint() {
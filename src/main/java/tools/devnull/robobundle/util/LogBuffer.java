@@ -0,0 +1,89 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.util;
+
+import java.io.PrintStream;
+
+/**
+ * A bounded buffer of log messages that are written all at once.
+ * <p/>
+ * When the buffer is full, the oldest message is dropped to give room to the new one.
+ * The number of dropped messages is written in the next flush.
+ *
+ * @author Marcelo Guimarães
+ */
+public class LogBuffer {
+
+  private final String[] messages;
+  private final StringBuilder output = new StringBuilder();
+  private int head;
+  private int size;
+  private int dropped;
+
+  public LogBuffer(int capacity) {
+    this.messages = new String[capacity];
+  }
+
+  /**
+   * Adds a message to this buffer.
+   *
+   * @param message the message to add
+   */
+  public void add(String message) {
+    if (size == messages.length) {
+      messages[head] = message;
+      head = (head + 1) % messages.length;
+      dropped++;
+    } else {
+      messages[(head + size) % messages.length] = message;
+      size++;
+    }
+  }
+
+  /**
+   * Writes the buffered messages to the given stream and empties this buffer.
+   *
+   * @param out the stream to write the messages
+   */
+  public void flushTo(PrintStream out) {
+    if (size == 0) {
+      return;
+    }
+    String lineSeparator = System.lineSeparator();
+    if (dropped > 0) {
+      output.append('(').append(dropped).append(" log messages dropped)").append(lineSeparator);
+    }
+    for (int i = 0; i < size; i++) {
+      int index = (head + i) % messages.length;
+      output.append(messages[index]).append(lineSeparator);
+      messages[index] = null;
+    }
+    out.print(output);
+    output.setLength(0);
+    head = 0;
+    size = 0;
+    dropped = 0;
+  }
+
+}
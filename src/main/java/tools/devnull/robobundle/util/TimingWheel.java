@@ -0,0 +1,123 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A hashed timing wheel that holds elements until a given turn.
+ * <p/>
+ * Each element goes to the slot of its turn modulo the number of slots, so scheduling
+ * is constant time and each {@link #advance(long, Collection) advance} only visits the
+ * elements of one slot. Elements scheduled more than one lap ahead stay in their slot
+ * until their turn comes.
+ * <p/>
+ * The wheel must be advanced once for every turn, without skipping any.
+ *
+ * @author Marcelo Guimarães
+ */
+public class TimingWheel<E> {
+
+  private final Object[][] elements;
+  private final long[][] turns;
+  private final int[] sizes;
+  private final int mask;
+  private int size;
+
+  /**
+   * @param slots the number of slots, rounded up to a power of two
+   */
+  public TimingWheel(int slots) {
+    int capacity = Integer.highestOneBit(Math.max(slots, 1) * 2 - 1);
+    this.elements = new Object[capacity][8];
+    this.turns = new long[capacity][8];
+    this.sizes = new int[capacity];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Schedules an element to the given turn.
+   *
+   * @param element the element to schedule
+   * @param turn    the turn when the element is due
+   */
+  public void schedule(E element, long turn) {
+    int slot = (int) (turn & mask);
+    int index = sizes[slot];
+    if (index == elements[slot].length) {
+      elements[slot] = Arrays.copyOf(elements[slot], index * 2);
+      turns[slot] = Arrays.copyOf(turns[slot], index * 2);
+    }
+    elements[slot][index] = element;
+    turns[slot][index] = turn;
+    sizes[slot]++;
+    size++;
+  }
+
+  /**
+   * Moves the elements due in the given turn to a collection.
+   *
+   * @param turn the current turn
+   * @param due  the collection to add the elements due
+   */
+  @SuppressWarnings("unchecked")
+  public void advance(long turn, Collection<? super E> due) {
+    int slot = (int) (turn & mask);
+    Object[] slotElements = elements[slot];
+    long[] slotTurns = turns[slot];
+    int i = 0;
+    while (i < sizes[slot]) {
+      if (slotTurns[i] <= turn) {
+        due.add((E) slotElements[i]);
+        int last = --sizes[slot];
+        slotElements[i] = slotElements[last];
+        slotTurns[i] = slotTurns[last];
+        slotElements[last] = null;
+        size--;
+      } else {
+        i++;
+      }
+    }
+  }
+
+  /**
+   * @return the number of scheduled elements
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes all scheduled elements.
+   */
+  public void clear() {
+    for (int slot = 0; slot < sizes.length; slot++) {
+      Arrays.fill(elements[slot], 0, sizes[slot], null);
+      sizes[slot] = 0;
+    }
+    size = 0;
+  }
+
+}
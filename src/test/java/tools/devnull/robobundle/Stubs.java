@@ -0,0 +1,104 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates stubs of the interfaces used by the parts and plugins. A stub answers each
+ * method with the value given for its name or, if there is none, with the default value
+ * of the return type.
+ *
+ * @author Marcelo Guimarães
+ */
+public class Stubs<T> {
+
+  private final Class<T> type;
+  private final Map<String, Answer> answers = new HashMap<String, Answer>();
+
+  /**
+   * Computes the result of a stubbed method.
+   */
+  public interface Answer {
+
+    Object answer(Object[] args);
+
+  }
+
+  private Stubs(Class<T> type) {
+    this.type = type;
+  }
+
+  public static <T> Stubs<T> stub(Class<T> type) {
+    return new Stubs<T>(type);
+  }
+
+  public Stubs<T> with(String method, final Object value) {
+    return with(method, new Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        return value;
+      }
+    });
+  }
+
+  public Stubs<T> with(String method, Answer answer) {
+    answers.put(method, answer);
+    return this;
+  }
+
+  public T create() {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+      new InvocationHandler() {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+          Answer answer = answers.get(method.getName());
+          if (answer != null) {
+            return answer.answer(args == null ? new Object[0] : args);
+          }
+          if (method.getName().equals("equals")) {
+            return proxy == args[0];
+          }
+          if (method.getName().equals("hashCode")) {
+            return System.identityHashCode(proxy);
+          }
+          return defaultValue(method.getReturnType());
+        }
+      }));
+  }
+
+  private static Object defaultValue(Class<?> type) {
+    if (type == boolean.class) return false;
+    if (type == int.class) return 0;
+    if (type == long.class) return 0L;
+    if (type == double.class) return 0.0;
+    if (type == float.class) return 0f;
+    return null;
+  }
+
+}
@@ -0,0 +1,86 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/** @author Marcelo Guimarães */
+public class AngleTest {
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testCachedSineAndCosineMatchTheExactFunctions() {
+    for (int i = 0; i < 10000; i++) {
+      double radians = (random.nextDouble() - 0.5) * 20 * Math.PI;
+      Angle angle = new Angle(radians);
+      for (int call = 0; call < 2; call++) {
+        assertEquals(Math.sin(radians), angle.sin(), 0);
+        assertEquals(Math.cos(radians), angle.cos(), 0);
+        assertEquals(Math.sin(radians), Angle.sin(angle), 0);
+        assertEquals(Math.cos(radians), Angle.cos(angle), 0);
+      }
+    }
+  }
+
+  @Test
+  public void testProjectionsMatchTheAngle() {
+    for (int i = 0; i < 10000; i++) {
+      Angle angle = new Angle((random.nextDouble() - 0.5) * 4 * Math.PI);
+      double length = random.nextDouble() * 100;
+      assertEquals(angle.sin() * length, Vectors.projectX(angle.radians(), length), 0);
+      assertEquals(angle.cos() * length, Vectors.projectY(angle.radians(), length), 0);
+    }
+  }
+
+  @Test
+  public void testSpecialValues() {
+    assertEquals(0, Angle.ZERO.sin(), 0);
+    assertEquals(1, Angle.ZERO.cos(), 0);
+    assertEquals(1, Angle.PI_OVER_TWO.sin(), 0);
+    assertEquals(-1, Angle.PI.cos(), 0);
+    assertEquals(Double.NaN, new Angle(Double.NaN).sin(), 0);
+  }
+
+  @Test
+  public void testCachedValuesFollowTheTrigonometryInUse() {
+    Angle angle = new Angle(1.2345);
+    try {
+      assertEquals(Math.sin(1.2345), angle.sin(), 0);
+      assertEquals(Math.cos(1.2345), angle.cos(), 0);
+      Trigonometry.use(Trigonometry.FAST);
+      assertEquals(FastTrig.sin(1.2345), angle.sin(), 0);
+      assertEquals(FastTrig.cos(1.2345), angle.cos(), 0);
+    } finally {
+      Trigonometry.use(Trigonometry.EXACT);
+    }
+    assertEquals(Math.sin(1.2345), angle.sin(), 0);
+    assertEquals(Math.cos(1.2345), angle.cos(), 0);
+  }
+
+}
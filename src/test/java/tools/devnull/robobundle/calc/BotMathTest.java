@@ -0,0 +1,104 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static tools.devnull.robobundle.calc.BotMath.areEquals;
+import static tools.devnull.robobundle.calc.BotMath.compare;
+import static tools.devnull.robobundle.calc.BotMath.hash;
+import static tools.devnull.robobundle.calc.BotMath.toBigecimal;
+
+/** @author Marcelo Guimarães */
+public class BotMathTest {
+
+  private static final int SAMPLES = 200000;
+
+  private final Random random = new Random(42);
+
+  private void check(double a, double b) {
+    String message = a + " x " + b;
+    assertEquals(message, toBigecimal(a).equals(toBigecimal(b)), areEquals(a, b));
+    assertEquals(message,
+        Integer.signum(toBigecimal(a).compareTo(toBigecimal(b))),
+        Integer.signum(compare(a, b)));
+    if (areEquals(a, b)) {
+      assertEquals(message, hash(a), hash(b));
+    }
+  }
+
+  @Test
+  public void testRandomValuesMatchTheBigDecimalRules() {
+    for (int i = 0; i < SAMPLES; i++) {
+      double a = (random.nextDouble() - 0.5) * 2000;
+      check(a, a + (random.nextDouble() - 0.5) * 4e-6);
+      check(a, (random.nextDouble() - 0.5) * 2000);
+    }
+  }
+
+  @Test
+  public void testValuesNearRoundingTiesMatchTheBigDecimalRules() {
+    for (int i = 0; i < SAMPLES; i++) {
+      double tie = (random.nextInt(2000000000) - 1000000000) / 1e6 + 5e-7;
+      double a = tie + (random.nextDouble() - 0.5) * 1e-12;
+      check(a, tie);
+      check(a, tie - 1e-6);
+      check(a, tie + 1e-6);
+    }
+  }
+
+  @Test
+  public void testLargeAndSpecialValuesMatchTheBigDecimalRules() {
+    double[] values = {0, -0.0, 1e5, -1e5, 1e5 + 1e-7, 123456.7890125, 1e12, -1e12};
+    for (double a : values) {
+      for (double b : values) {
+        check(a, b);
+      }
+    }
+  }
+
+  @Test
+  public void testEqualPointsAndAnglesHaveEqualHashCodes() {
+    for (int i = 0; i < SAMPLES; i++) {
+      double x = random.nextDouble() * 800;
+      double y = random.nextDouble() * 600;
+      Point point = new Point(x, y);
+      Point near = new Point(x + 1e-9, y - 1e-9);
+      if (point.equals(near)) {
+        assertEquals(point.hashCode(), near.hashCode());
+      }
+      Angle angle = new Angle(x / 100);
+      Angle nearAngle = new Angle(x / 100 + 1e-9);
+      if (angle.equals(nearAngle)) {
+        assertEquals(angle.hashCode(), nearAngle.hashCode());
+      }
+    }
+    assertTrue(new Point(1, 2).equals(new Point(1.0000001, 1.9999999)));
+  }
+
+}
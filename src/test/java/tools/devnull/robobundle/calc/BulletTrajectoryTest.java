@@ -0,0 +1,100 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import org.junit.Test;
+import tools.devnull.robobundle.BattleField;
+import tools.devnull.robobundle.Field;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/** @author Marcelo Guimarães */
+public class BulletTrajectoryTest {
+
+  private final Field field = new BattleField(800, 600);
+  private final Random random = new Random(42);
+
+  // the trajectory computed before the analytic path: stepping until leaving the field
+  private List<Point> baseline(Point from, Point target, double step) {
+    Angle heading = from.bearingTo(target).angle().absolute();
+    List<Point> points = new ArrayList<Point>();
+    points.add(from);
+    Point point = from;
+    while (field.isOnField(point)) {
+      point = new Point(
+        point.x() + step * Math.sin(heading.radians()),
+        point.y() + step * Math.cos(heading.radians())
+      );
+      points.add(point);
+    }
+    return points;
+  }
+
+  private void assertTrajectory(Point from, Point target, double step) {
+    List<Point> expected = baseline(from, target, step);
+    List<Point> points = new BulletTrajectory(field).from(from).distancing(step).to(target);
+    String message = from + " -> " + target;
+    assertEquals(message, expected.size(), points.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(message, expected.get(i).x(), points.get(i).x(), 1e-6);
+      assertEquals(message, expected.get(i).y(), points.get(i).y(), 1e-6);
+    }
+  }
+
+  @Test
+  public void testPointsMatchTheSteppedTrajectory() {
+    for (int i = 0; i < 5000; i++) {
+      Point from = new Point(random.nextDouble() * 800, random.nextDouble() * 600);
+      Point target = new Point(random.nextDouble() * 800, random.nextDouble() * 600);
+      assertTrajectory(from, target, 1 + random.nextDouble() * 20);
+    }
+  }
+
+  @Test
+  public void testOriginOutsideTheFieldIsTheOnlyPoint() {
+    Point target = new Point(400, 300);
+    assertTrajectory(new Point(-10, 300), target, 5);
+    assertTrajectory(new Point(400, 610), target, 5);
+    List<Point> points = new BulletTrajectory(field).from(new Point(900, 700)).to(target);
+    assertEquals(1, points.size());
+    assertEquals(new Point(900, 700), points.get(0));
+  }
+
+  @Test
+  public void testPathUsesTheBulletSpeed() {
+    Point from = new Point(100, 100);
+    Point target = new Point(100, 500);
+    BulletTrajectory trajectory = new BulletTrajectory(field).from(from);
+    assertEquals(11, trajectory.path(target).speed(), 0);
+    assertEquals(500 / 11.0, trajectory.path(target).exitTime(), 1e-9);
+    assertEquals(17, trajectory.speed(17).path(target).speed(), 0);
+    assertEquals(14, trajectory.path(target, 14).speed(), 0);
+    assertEquals(27, trajectory.distancing(20).to(target).size());
+  }
+
+}
@@ -0,0 +1,136 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import java.util.Random;
+
+import static tools.devnull.robobundle.calc.BotMath.toBigecimal;
+
+/**
+ * Measures the primitive paths of this package against the ones they replace:
+ * <ul>
+ * <li>{@link BotMath} comparison and hashing against the {@link java.math.BigDecimal}
+ * rules;</li>
+ * <li>{@link MutablePoint} against chained {@link Point#move(Angle, double)} calls;</li>
+ * <li>the sine and cosine cached by {@link Angle} against calling {@link Math} for every
+ * use.</li>
+ * </ul>
+ * Run with <code>java -cp target/classes:target/test-classes:robocode.jar
+ * tools.devnull.robobundle.calc.CalcBenchmark</code>.
+ *
+ * @author Marcelo Guimarães
+ */
+public class CalcBenchmark {
+
+  private static final int SIZE = 4096;
+  private static final int OPERATIONS = 2000000;
+  private static final int ROUNDS = 5;
+
+  private static double sink;
+
+  public static void main(String[] args) {
+    Random random = new Random(42);
+    double[] values = new double[SIZE];
+    Angle[] angles = new Angle[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      values[i] = random.nextDouble() * 800;
+      angles[i] = new Angle((random.nextDouble() - 0.5) * 2 * Math.PI);
+    }
+    for (int round = 1; round <= ROUNDS; round++) {
+      System.out.printf("round %d:%n", round);
+      compare(values);
+      move(angles);
+      trigonometry(angles);
+    }
+  }
+
+  private static void compare(double[] values) {
+    long start = System.nanoTime();
+    long result = 0;
+    for (int i = 0; i < OPERATIONS; i++) {
+      double a = values[i & (SIZE - 1)];
+      double b = values[(i + 1) & (SIZE - 1)];
+      if (toBigecimal(a).equals(toBigecimal(b))) {
+        result++;
+      }
+      result += toBigecimal(a).hashCode();
+    }
+    long bigDecimal = System.nanoTime() - start;
+    start = System.nanoTime();
+    for (int i = 0; i < OPERATIONS; i++) {
+      double a = values[i & (SIZE - 1)];
+      double b = values[(i + 1) & (SIZE - 1)];
+      if (BotMath.areEquals(a, b)) {
+        result++;
+      }
+      result += BotMath.hash(a);
+    }
+    long primitive = System.nanoTime() - start;
+    sink += result;
+    print("equals + hash", "BigDecimal", bigDecimal, "BotMath", primitive);
+  }
+
+  private static void move(Angle[] angles) {
+    long start = System.nanoTime();
+    Point point = new Point(400, 300);
+    for (int i = 0; i < OPERATIONS; i++) {
+      // headings are computed on every turn, so the angle is always a new one
+      point = point.move(new Angle(angles[i & (SIZE - 1)].radians()), 8);
+    }
+    long immutable = System.nanoTime() - start;
+    start = System.nanoTime();
+    MutablePoint mutable = new MutablePoint(400, 300);
+    for (int i = 0; i < OPERATIONS; i++) {
+      mutable.move(angles[i & (SIZE - 1)].radians(), 8);
+    }
+    long primitive = System.nanoTime() - start;
+    sink += point.x() + mutable.x();
+    print("move", "Point", immutable, "MutablePoint", primitive);
+  }
+
+  private static void trigonometry(Angle[] angles) {
+    long start = System.nanoTime();
+    double result = 0;
+    for (int i = 0; i < OPERATIONS; i++) {
+      double radians = angles[i & (SIZE - 1)].radians();
+      result += Math.sin(radians) + Math.cos(radians);
+    }
+    long exact = System.nanoTime() - start;
+    start = System.nanoTime();
+    for (int i = 0; i < OPERATIONS; i++) {
+      Angle angle = angles[i & (SIZE - 1)];
+      result += angle.sin() + angle.cos();
+    }
+    long cached = System.nanoTime() - start;
+    sink += result;
+    print("sin + cos", "Math", exact, "Angle", cached);
+  }
+
+  private static void print(String operation, String before, long beforeTime,
+                            String after, long afterTime) {
+    System.out.printf("  %-14s %-12s %6.1f ns/op, %-12s %6.1f ns/op%n", operation,
+      before, beforeTime / (double) OPERATIONS, after, afterTime / (double) OPERATIONS);
+  }
+
+}
@@ -0,0 +1,109 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import org.junit.Test;
+import tools.devnull.robobundle.BattleField;
+import tools.devnull.robobundle.Field;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/** @author Marcelo Guimarães */
+public class ForceFieldTest {
+
+  private static final double RESOLUTION = 16;
+
+  private final Field field = new BattleField(800, 600);
+  private final Random random = new Random(42);
+
+  private List<GravityPoint> randomPoints(int count) {
+    List<GravityPoint> points = new ArrayList<GravityPoint>();
+    for (int i = 0; i < count; i++) {
+      points.add(new GravityPoint(random.nextDouble() * 800, random.nextDouble() * 600,
+        (random.nextDouble() - 0.5) * 20000));
+    }
+    return points;
+  }
+
+  private MutablePoint exact(List<GravityPoint> points, double x, double y) {
+    MutablePoint force = new MutablePoint();
+    for (GravityPoint point : points) {
+      point.addForceTo(force, x, y);
+    }
+    return force;
+  }
+
+  @Test
+  public void testNodesHoldTheExactForces() {
+    List<GravityPoint> points = randomPoints(20);
+    ForceField forceField = new ForceField(field, points, RESOLUTION);
+    for (double x = 0; x <= 800; x += RESOLUTION) {
+      for (double y = 0; y <= 600; y += RESOLUTION) {
+        MutablePoint expected = exact(points, x, y);
+        MutablePoint force = forceField.addForceTo(new MutablePoint(), x, y);
+        assertEquals(expected.x(), force.x(), 1e-9);
+        assertEquals(expected.y(), force.y(), 1e-9);
+      }
+    }
+  }
+
+  @Test
+  public void testAddingAPointMatchesBakingAllPoints() {
+    List<GravityPoint> points = randomPoints(20);
+    GravityPoint extra = new GravityPoint(123, 456, -5000);
+    ForceField baked = new ForceField(field, points, RESOLUTION);
+    ForceField added = baked.plus(extra);
+    points.add(extra);
+    ForceField rebaked = new ForceField(field, points, RESOLUTION);
+    for (int i = 0; i < 10000; i++) {
+      double x = random.nextDouble() * 800;
+      double y = random.nextDouble() * 600;
+      MutablePoint expected = rebaked.addForceTo(new MutablePoint(), x, y);
+      MutablePoint force = added.addForceTo(new MutablePoint(), x, y);
+      assertEquals(expected.x(), force.x(), 1e-9);
+      assertEquals(expected.y(), force.y(), 1e-9);
+    }
+  }
+
+  @Test
+  public void testAddingAPointKeepsTheOriginalField() {
+    List<GravityPoint> points = randomPoints(5);
+    ForceField baked = new ForceField(field, points, RESOLUTION);
+    MutablePoint before = baked.addForceTo(new MutablePoint(), 400, 300);
+    baked.plus(new GravityPoint(400, 310, 1000));
+    MutablePoint after = baked.addForceTo(new MutablePoint(), 400, 300);
+    assertEquals(before.x(), after.x(), 0);
+    assertEquals(before.y(), after.y(), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testResolutionMustBePositive() {
+    new ForceField(field, randomPoints(1), 0);
+  }
+
+}
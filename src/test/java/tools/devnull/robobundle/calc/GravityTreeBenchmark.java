@@ -0,0 +1,138 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the {@link GravityTree} against the exact sum of the forces, the way
+ * {@link tools.devnull.robobundle.parts.movement.GravitationalMovingSystem} uses it: the
+ * tree is rebuilt and queried once per turn.
+ * <p/>
+ * The points are strips of anti-gravity points along the paths of the shots fired by
+ * ten enemies at the bot, on an 800x600 field.
+ * <p/>
+ * Run with <code>java -cp target/classes:target/test-classes:robocode.jar
+ * tools.devnull.robobundle.calc.GravityTreeBenchmark</code>.
+ *
+ * @author Marcelo Guimarães
+ */
+public class GravityTreeBenchmark {
+
+  private static final int[] SIZES = {200, 600, 2000};
+  private static final double[] THETAS = {0.3, 0.5, 0.8};
+  private static final int TURNS = 2000;
+  private static final int ROUNDS = 3;
+
+  private static double sink;
+
+  public static void main(String[] args) {
+    for (int round = 1; round <= ROUNDS; round++) {
+      System.out.printf("round %d:%n", round);
+      for (int size : SIZES) {
+        List<GravityPoint> points = shots(size, new Random(size));
+        double[][] locations = locations(new Random(42));
+        long exact = exact(points, locations);
+        StringBuilder result = new StringBuilder();
+        for (double theta : THETAS) {
+          GravityTree tree = new GravityTree(theta);
+          long time = tree(tree, points, locations);
+          result.append(String.format(", theta %.1f %6.1f us (error %.2f%%)", theta,
+            time / 1000.0 / TURNS, 100 * meanError(tree, points, locations)));
+        }
+        System.out.printf("  n=%-5d exact %6.1f us%s%n", size, exact / 1000.0 / TURNS, result);
+      }
+    }
+  }
+
+  private static List<GravityPoint> shots(int size, Random random) {
+    List<GravityPoint> points = new ArrayList<GravityPoint>(size);
+    Point bot = new Point(400, 300);
+    while (points.size() < size) {
+      Point enemy = new Point(random.nextDouble() * 800, random.nextDouble() * 600);
+      Angle heading = enemy.bearingTo(bot).angle();
+      for (int i = 3; i < 40 && points.size() < size; i++) {
+        Point point = enemy.move(heading, i * 10);
+        if (point.x() >= 0 && point.y() >= 0 && point.x() <= 800 && point.y() <= 600) {
+          points.add(new GravityPoint(point, -5000));
+        }
+      }
+    }
+    return points;
+  }
+
+  private static double[][] locations(Random random) {
+    double[][] locations = new double[TURNS][];
+    for (int i = 0; i < TURNS; i++) {
+      locations[i] = new double[]{18 + random.nextDouble() * 764, 18 + random.nextDouble() * 564};
+    }
+    return locations;
+  }
+
+  private static long exact(List<GravityPoint> points, double[][] locations) {
+    MutablePoint force = new MutablePoint();
+    long start = System.nanoTime();
+    for (double[] location : locations) {
+      force.set(0, 0);
+      for (GravityPoint point : points) {
+        point.addForceTo(force, location[0], location[1]);
+      }
+      sink += force.x();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long tree(GravityTree tree, List<GravityPoint> points, double[][] locations) {
+    MutablePoint force = new MutablePoint();
+    long start = System.nanoTime();
+    for (double[] location : locations) {
+      tree.clear();
+      for (GravityPoint point : points) {
+        tree.add(point);
+      }
+      force.set(0, 0);
+      tree.addForceTo(force, location[0], location[1]);
+      sink += force.x();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static double meanError(GravityTree tree, List<GravityPoint> points,
+                                  double[][] locations) {
+    double total = 0;
+    for (double[] location : locations) {
+      MutablePoint exact = new MutablePoint();
+      for (GravityPoint point : points) {
+        point.addForceTo(exact, location[0], location[1]);
+      }
+      MutablePoint approximated = tree.addForceTo(new MutablePoint(), location[0], location[1]);
+      total += Vectors.distance(exact.x(), exact.y(), approximated.x(), approximated.y())
+        / Vectors.length(exact.x(), exact.y());
+    }
+    return total / locations.length;
+  }
+
+}
@@ -0,0 +1,150 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** @author Marcelo Guimarães */
+public class GravityTreeTest {
+
+  private final Random random = new Random(42);
+
+  private List<GravityPoint> randomPoints(int count, double minValue, double maxValue) {
+    List<GravityPoint> points = new ArrayList<GravityPoint>();
+    for (int i = 0; i < count; i++) {
+      points.add(new GravityPoint(random.nextDouble() * 800, random.nextDouble() * 600,
+        minValue + random.nextDouble() * (maxValue - minValue)));
+    }
+    return points;
+  }
+
+  private GravityTree tree(double theta, List<GravityPoint> points) {
+    GravityTree tree = new GravityTree(theta);
+    for (GravityPoint point : points) {
+      tree.add(point);
+    }
+    return tree;
+  }
+
+  // the error of the tree divided by the sum of the magnitudes of the forces, so the
+  // forces that cancel each other don't inflate it
+  private double worstError(GravityTree tree, List<GravityPoint> points, int queries) {
+    double worst = 0;
+    for (int i = 0; i < queries; i++) {
+      double x = random.nextDouble() * 800;
+      double y = random.nextDouble() * 600;
+      MutablePoint exact = new MutablePoint();
+      double magnitude = 0;
+      for (GravityPoint point : points) {
+        Point force = point.force(new Point(x, y));
+        exact.add(force);
+        magnitude += Vectors.length(force.x(), force.y());
+      }
+      MutablePoint approximated = tree.addForceTo(new MutablePoint(), x, y);
+      double error = Vectors.distance(exact.x(), exact.y(), approximated.x(), approximated.y());
+      worst = Math.max(worst, error / magnitude);
+    }
+    return worst;
+  }
+
+  private void assertError(double theta, double maxError) {
+    for (int trial = 0; trial < 20; trial++) {
+      int count = 50 + random.nextInt(500);
+      // half of the trials mix pulling and pushing points
+      List<GravityPoint> points = trial % 2 == 0 ?
+        randomPoints(count, -5000, 0) : randomPoints(count, -5000, 5000);
+      double error = worstError(tree(theta, points), points, 50);
+      assertTrue("theta " + theta + ": " + error, error <= maxError);
+    }
+  }
+
+  @Test
+  public void testErrorIsBoundedByTheta() {
+    assertError(0.3, 0.005);
+    assertError(0.5, 0.025);
+    assertError(0.8, 0.1);
+  }
+
+  @Test
+  public void testSmallThetaGivesTheExactSum() {
+    List<GravityPoint> points = randomPoints(300, -5000, 5000);
+    assertEquals(0, worstError(tree(1e-6, points), points, 200), 1e-12);
+  }
+
+  @Test
+  public void testPointsAtTheReferenceUseTheGravityPointRules() {
+    GravityPoint point = new GravityPoint(100, 100, -1000);
+    List<GravityPoint> points = new ArrayList<GravityPoint>(randomPoints(20, -10, 10));
+    points.add(point);
+    GravityTree tree = tree(0.5, points);
+    MutablePoint expected = new MutablePoint();
+    for (GravityPoint gravityPoint : points) {
+      gravityPoint.addForceTo(expected, 100, 100);
+    }
+    MutablePoint force = tree.addForceTo(new MutablePoint(), 100, 100);
+    assertEquals(expected.x(), force.x(), 1e-6 * Math.abs(expected.x()));
+    assertEquals(expected.y(), force.y(), 1e-6 * Math.abs(expected.y()));
+  }
+
+  @Test
+  public void testTreeIsRebuiltAfterChanges() {
+    GravityTree tree = new GravityTree(0.5);
+    MutablePoint force = tree.addForceTo(new MutablePoint(), 10, 10);
+    assertEquals(0, force.x(), 0);
+    assertEquals(0, force.y(), 0);
+
+    List<GravityPoint> points = randomPoints(100, -5000, 0);
+    for (GravityPoint point : points) {
+      tree.add(point);
+    }
+    assertEquals(100, tree.size());
+    assertTrue(worstError(tree, points, 50) <= 0.025);
+
+    tree.clear();
+    assertEquals(0, tree.size());
+    points = randomPoints(30, 0, 5000);
+    for (GravityPoint point : points) {
+      tree.add(point);
+    }
+    assertTrue(worstError(tree, points, 50) <= 0.025);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThetaMustBePositive() {
+    new GravityTree(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testThetaMustNotExceedOne() {
+    new GravityTree(1.5);
+  }
+
+}
@@ -0,0 +1,222 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import org.junit.Before;
+import org.junit.Test;
+import robocode.Rules;
+import tools.devnull.robobundle.BattleField;
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Enemy;
+import tools.devnull.robobundle.Field;
+import tools.devnull.robobundle.Stubs;
+import tools.devnull.robobundle.parts.Body;
+import tools.devnull.robobundle.parts.Gun;
+import tools.devnull.robobundle.parts.Radar;
+import tools.devnull.robobundle.parts.aiming.LinearPredictionAimingSystem;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** @author Marcelo Guimarães */
+public class InterceptTest {
+
+  private static final double DELTA = 1e-6;
+
+  private final Field field = new BattleField(800, 600);
+  private final Random random = new Random(42);
+
+  private Point botLocation;
+  private Angle botHeading;
+  private double botVelocity;
+  private double power;
+  private Enemy target;
+  private Point aimed;
+  private Bot bot;
+
+  @Before
+  public void setUp() {
+    Radar radar = Stubs.stub(Radar.class)
+      .with("hasTargetSet", true)
+      .with("target", (Stubs.Answer) args -> target)
+      .with("battleField", field)
+      .create();
+    Gun gun = Stubs.stub(Gun.class)
+      .with("power", (Stubs.Answer) args -> power)
+      .with("aimTo", (Stubs.Answer) args -> {
+        aimed = (Point) args[0];
+        return null;
+      })
+      .create();
+    Body body = Stubs.stub(Body.class)
+      .with("heading", (Stubs.Answer) args -> botHeading)
+      .with("velocity", (Stubs.Answer) args -> botVelocity)
+      .create();
+    bot = Stubs.stub(Bot.class)
+      .with("radar", radar)
+      .with("gun", gun)
+      .with("body", body)
+      .with("location", (Stubs.Answer) args -> botLocation)
+      .create();
+  }
+
+  // the prediction made before the closed form: the enemy moves one tick at a time until
+  // the bullet reaches it or it leaves the field
+  private Point baseline(Point origin, Enemy enemy, double bulletSpeed) {
+    Angle enemyHeading = enemy.heading();
+    double enemyVelocity = enemy.velocity();
+    double deltaTime = 0;
+    Point predictedLocation = enemy.location();
+    while ((++deltaTime) * bulletSpeed < origin.bearingTo(predictedLocation).distance()) {
+      predictedLocation = predictedLocation.plus(new Point(
+        Math.sin(enemyHeading.radians()) * enemyVelocity,
+        Math.cos(enemyHeading.radians()) * enemyVelocity
+      ));
+      if (!field.isOnField(predictedLocation)) {
+        predictedLocation = field.normalize(predictedLocation);
+        break;
+      }
+    }
+    return field.normalize(predictedLocation);
+  }
+
+  private void randomState() {
+    botLocation = new Point(18 + random.nextDouble() * 764, 18 + random.nextDouble() * 564);
+    botHeading = new Angle(random.nextDouble() * 2 * Math.PI);
+    botVelocity = random.nextDouble() * 16 - 8;
+    power = Rules.MIN_BULLET_POWER
+      + random.nextDouble() * (Rules.MAX_BULLET_POWER - Rules.MIN_BULLET_POWER);
+    target = enemy(
+      new Point(18 + random.nextDouble() * 764, 18 + random.nextDouble() * 564),
+      new Angle(random.nextDouble() * 2 * Math.PI),
+      random.nextDouble() * 16 - 8
+    );
+  }
+
+  private Enemy enemy(Point location, Angle heading, double velocity) {
+    return Stubs.stub(Enemy.class)
+      .with("location", location)
+      .with("heading", heading)
+      .with("velocity", velocity)
+      .create();
+  }
+
+  private void assertAim(Point expected) {
+    String message = "bot " + botLocation + " enemy " + target.location();
+    assertEquals(message, expected.x(), aimed.x(), DELTA);
+    assertEquals(message, expected.y(), aimed.y(), DELTA);
+  }
+
+  @Test
+  public void testAimMatchesTheSteppedPrediction() {
+    LinearPredictionAimingSystem aiming = new LinearPredictionAimingSystem(bot);
+    for (int i = 0; i < 20000; i++) {
+      randomState();
+      aiming.execute();
+      assertAim(baseline(botLocation, target, Rules.getBulletSpeed(power)));
+    }
+  }
+
+  @Test
+  public void testAimMatchesTheSteppedPredictionForTargetsStoppedByAWall() {
+    LinearPredictionAimingSystem aiming = new LinearPredictionAimingSystem(bot);
+    int clamped = 0;
+    for (int i = 0; i < 5000; i++) {
+      randomState();
+      // targets close to a wall, running into it
+      int side = random.nextInt(4);
+      Point location;
+      Angle heading;
+      if (side == 0) {
+        location = new Point(20 + random.nextDouble() * 40, 18 + random.nextDouble() * 564);
+        heading = new Angle(-Math.PI / 2 + (random.nextDouble() - 0.5));
+      } else if (side == 1) {
+        location = new Point(740 + random.nextDouble() * 40, 18 + random.nextDouble() * 564);
+        heading = new Angle(Math.PI / 2 + (random.nextDouble() - 0.5));
+      } else if (side == 2) {
+        location = new Point(18 + random.nextDouble() * 764, 20 + random.nextDouble() * 40);
+        heading = new Angle(Math.PI + (random.nextDouble() - 0.5));
+      } else {
+        location = new Point(18 + random.nextDouble() * 764, 540 + random.nextDouble() * 40);
+        heading = new Angle(random.nextDouble() - 0.5);
+      }
+      target = enemy(location, heading, 8);
+      aiming.execute();
+      Point expected = baseline(botLocation, target, Rules.getBulletSpeed(power));
+      assertAim(expected);
+      if (expected.x() == 18 || expected.y() == 18 || expected.x() == 782 || expected.y() == 582) {
+        clamped++;
+      }
+    }
+    assertTrue("only " + clamped + " targets reached a wall", clamped > 1000);
+  }
+
+  @Test
+  public void testAimFromTheNextTurnPosition() {
+    LinearPredictionAimingSystem aiming = new LinearPredictionAimingSystem(bot)
+      .fromNextTurnPosition();
+    for (int i = 0; i < 20000; i++) {
+      randomState();
+      aiming.execute();
+      Point origin = botLocation.move(botHeading, botVelocity);
+      assertAim(baseline(origin, target, Rules.getBulletSpeed(power)));
+    }
+  }
+
+  @Test
+  public void testTimeMatchesTheSteppedInterception() {
+    for (int i = 0; i < 20000; i++) {
+      double dx = random.nextDouble() * 1600 - 800;
+      double dy = random.nextDouble() * 1200 - 600;
+      double heading = random.nextDouble() * 2 * Math.PI;
+      double velocity = random.nextDouble() * 16 - 8;
+      double vx = Math.sin(heading) * velocity;
+      double vy = Math.cos(heading) * velocity;
+      double bulletSpeed = Rules.getBulletSpeed(0.1 + random.nextDouble() * 2.9);
+      int ticks = 0;
+      while ((ticks + 1) * bulletSpeed < Vectors.length(dx + vx * ticks, dy + vy * ticks)) {
+        ticks++;
+      }
+      assertEquals(ticks, Math.ceil(Intercept.time(dx, dy, vx, vy, bulletSpeed, bulletSpeed)), 0);
+    }
+  }
+
+  @Test
+  public void testTimeOfUnreachableAndCloseTargets() {
+    assertEquals(Double.POSITIVE_INFINITY, Intercept.time(100, 0, 20, 0, 11, 0), 0);
+    assertEquals(0, Intercept.time(5, 0, 8, 0, 11, 11), 0);
+    assertEquals(100 / 11.0, Intercept.time(100, 0, 0, 0, 11, 0), 1e-9);
+  }
+
+  @Test
+  public void testExitTime() {
+    assertEquals(50, Intercept.exitTime(field, 400, 300, 8, 0), 1e-9);
+    assertEquals(37.5, Intercept.exitTime(field, 400, 300, 0, -8), 1e-9);
+    assertEquals(0, Intercept.exitTime(field, -1, 300, 8, 0), 0);
+    assertEquals(Double.POSITIVE_INFINITY, Intercept.exitTime(field, 400, 300, 0, 0), 0);
+  }
+
+}
@@ -0,0 +1,75 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/** @author Marcelo Guimarães */
+public class MutablePointTest {
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testMovesLikeThePoint() {
+    Point point = new Point(400, 300);
+    MutablePoint mutable = new MutablePoint(400, 300);
+    for (int i = 0; i < 10000; i++) {
+      Angle heading = new Angle((random.nextDouble() - 0.5) * 4 * Math.PI);
+      double value = (random.nextDouble() - 0.5) * 16;
+      point = point.move(heading, value);
+      mutable.move(heading.radians(), value);
+      assertEquals(point.x(), mutable.x(), 0);
+      assertEquals(point.y(), mutable.y(), 0);
+    }
+    assertEquals(point, mutable.toPoint());
+  }
+
+  @Test
+  public void testAddsLikeThePoint() {
+    Point point = new Point(10, 20);
+    MutablePoint mutable = new MutablePoint().set(point);
+    for (int i = 0; i < 1000; i++) {
+      Point delta = new Point(random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5);
+      point = point.plus(delta);
+      mutable.add(delta);
+      assertEquals(point.x(), mutable.x(), 0);
+      assertEquals(point.y(), mutable.y(), 0);
+    }
+  }
+
+  @Test
+  public void testMeasuresDistancesLikeThePoint() {
+    for (int i = 0; i < 1000; i++) {
+      Point a = new Point(random.nextDouble() * 800, random.nextDouble() * 600);
+      Point b = new Point(random.nextDouble() * 800, random.nextDouble() * 600);
+      assertEquals(a.distanceTo(b), new MutablePoint().set(a).distanceTo(b), 0);
+      assertEquals(a.distanceTo(b) * a.distanceTo(b), a.distanceSquaredTo(b), 1e-6);
+    }
+  }
+
+}
@@ -0,0 +1,139 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.calc;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/** @author Marcelo Guimarães */
+public class VectorsTest {
+
+  private static final double DELTA = 1e-6;
+
+  // the bearing computed before Vectors.bearing: the cosine rule with a point at north
+  private static double baseline(Point p1, Point p2) {
+    Point p3 = new Point(p1.x(), p1.y() + 10);
+    double a = distance(p1, p2);
+    double b = distance(p1, p3);
+    double c = distance(p2, p3);
+    double cosGama = (Math.pow(a, 2) + Math.pow(b, 2) - Math.pow(c, 2)) / (2 * a * b);
+    double angle = Math.acos(cosGama);
+    if (Double.isNaN(angle)) {
+      angle = 0;
+    }
+    return p2.x() >= p1.x() ? angle : -angle;
+  }
+
+  private static double distance(Point p1, Point p2) {
+    return Math.sqrt(Math.pow(p1.x() - p2.x(), 2) + Math.pow(p1.y() - p2.y(), 2));
+  }
+
+  private static void assertBearing(double expected, Point p1, Point p2) {
+    String message = p1 + " -> " + p2;
+    assertEquals(message, expected, Vectors.bearing(p1.x(), p1.y(), p2.x(), p2.y()), DELTA);
+    assertEquals(message, expected, new Position(p1, p2).angle().radians(), DELTA);
+    assertEquals(message, expected, p1.bearingTo(p2).angle().radians(), DELTA);
+  }
+
+  @Test
+  public void testBearingMatchesTheBaselineOverAGrid() {
+    for (double x1 = 0; x1 <= 800; x1 += 50) {
+      for (double y1 = 0; y1 <= 600; y1 += 50) {
+        Point p1 = new Point(x1, y1);
+        for (double x2 = 3; x2 <= 800; x2 += 37) {
+          for (double y2 = 0; y2 <= 600; y2 += 29) {
+            Point p2 = new Point(x2, y2);
+            assertBearing(baseline(p1, p2), p1, p2);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBearingMatchesTheBaselineNearTheAxes() {
+    Point p1 = new Point(400, 300);
+    double[] offsets = {1e-3, 0.01, 0.1, 1, 10};
+    for (double offset : offsets) {
+      for (double distance = 20; distance <= 400; distance += 20) {
+        Point[] targets = {
+          new Point(400 + offset, 300 + distance),
+          new Point(400 - offset, 300 + distance),
+          new Point(400 + offset, 300 - distance),
+          new Point(400 - offset, 300 - distance),
+          new Point(400 + distance, 300 + offset),
+          new Point(400 + distance, 300 - offset),
+          new Point(400 - distance, 300 + offset),
+          new Point(400 - distance, 300 - offset)
+        };
+        for (Point p2 : targets) {
+          assertBearing(baseline(p1, p2), p1, p2);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBearingOfAlignedPoints() {
+    Point p1 = new Point(400, 300);
+    for (double distance = 1; distance <= 300; distance += 7) {
+      // north
+      assertBearing(0, p1, p1.up(distance));
+      assertEquals(baseline(p1, p1.up(distance)), 0, DELTA);
+      // east and west
+      assertBearing(Math.PI / 2, p1, p1.right(distance));
+      assertEquals(baseline(p1, p1.right(distance)), Math.PI / 2, DELTA);
+      assertBearing(-Math.PI / 2, p1, p1.left(distance));
+      assertEquals(baseline(p1, p1.left(distance)), -Math.PI / 2, DELTA);
+      // south: the baseline gives PI or, when the rounding takes the cosine below -1,
+      // zero (north); the bearing is always PI
+      assertBearing(Math.PI, p1, p1.down(distance));
+      double baseline = baseline(p1, p1.down(distance));
+      assertEquals(0, Math.min(Math.abs(baseline - Math.PI), Math.abs(baseline)), DELTA);
+    }
+  }
+
+  @Test
+  public void testBearingOfCoincidentPoints() {
+    Point p1 = new Point(123.4, 56.7);
+    assertEquals(0, baseline(p1, p1), 0);
+    assertBearing(0, p1, p1);
+    assertBearing(0, p1, new Point(123.4, 56.7));
+    assertEquals(0, new Position(p1, p1).distance(), 0);
+  }
+
+  @Test
+  public void testDistances() {
+    Point p1 = new Point(10, 20);
+    Point p2 = new Point(13, 24);
+    assertEquals(5, Vectors.distance(10, 20, 13, 24), 0);
+    assertEquals(25, Vectors.distanceSquared(10, 20, 13, 24), 0);
+    assertEquals(5, Vectors.length(3, 4), 0);
+    assertEquals(distance(p1, p2), new Position(p1, p2).distance(), 0);
+    assertEquals(true, p1.isNear(p2, 5));
+    assertEquals(false, p1.isNear(p2, 4.999));
+  }
+
+}
@@ -0,0 +1,197 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.event;
+
+import org.junit.Before;
+import org.junit.Test;
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Stubs;
+import tools.devnull.robobundle.annotation.When;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/** @author Marcelo Guimarães */
+public class DefaultEventRegistryTest {
+
+  private static final EventKey LATEST = EventKey.of("DefaultEventRegistryTest.LATEST");
+  private static final EventKey COALESCED = EventKey.of("DefaultEventRegistryTest.COALESCED");
+  private static final EventKey QUEUED = EventKey.of("DefaultEventRegistryTest.QUEUED");
+
+  private DefaultEventRegistry registry;
+  private Listener listener;
+
+  public static class Listener {
+
+    private final List<String> received = new ArrayList<String>();
+    private EventRegistry registry;
+
+    @When("DefaultEventRegistryTest.LATEST")
+    public void latest(String value) {
+      received.add("latest " + value);
+      if (value.equals("resend")) {
+        registry.send(LATEST, "again");
+      }
+    }
+
+    @When("DefaultEventRegistryTest.COALESCED")
+    public void coalesced(String name, Integer value) {
+      received.add(name + value);
+    }
+
+    @When("DefaultEventRegistryTest.QUEUED")
+    public void queued(String value) {
+      received.add("queued " + value);
+    }
+
+  }
+
+  @Before
+  public void setUp() {
+    registry = new DefaultEventRegistry(Stubs.stub(Bot.class).create())
+      .deferLatest(LATEST)
+      .defer(COALESCED, args -> args[0])
+      .defer(QUEUED);
+    listener = new Listener();
+    listener.registry = registry;
+    registry.register(listener);
+  }
+
+  @Test
+  public void testDeferredEventsAreDispatchedOnFlush() {
+    registry.send(QUEUED, "1");
+    assertEquals(0, listener.received.size());
+    registry.flush();
+    assertEquals("[queued 1]", listener.received.toString());
+  }
+
+  @Test
+  public void testEventsWithoutCoalescingAreAllDispatchedInOrder() {
+    registry.send(QUEUED, "1");
+    registry.send(QUEUED, "2");
+    registry.flush();
+    registry.send(QUEUED, "3");
+    registry.flush();
+    assertEquals("[queued 1, queued 2, queued 3]", listener.received.toString());
+  }
+
+  @Test
+  public void testLatestEventIsKept() {
+    registry.send(LATEST, "1");
+    registry.send(LATEST, "2");
+    registry.flush();
+    registry.send(LATEST, "3");
+    registry.flush();
+    assertEquals("[latest 2, latest 3]", listener.received.toString());
+  }
+
+  @Test
+  public void testEventsAreCoalescedByKeyKeepingTheFirstPosition() {
+    registry.send(COALESCED, "a", 1);
+    registry.send(COALESCED, "b", 1);
+    registry.send(COALESCED, "a", 2);
+    registry.flush();
+    assertEquals("[a2, b1]", listener.received.toString());
+  }
+
+  @Test
+  public void testEventsDeferredWhileFlushingWaitForTheNextFlush() {
+    registry.send(LATEST, "resend");
+    registry.flush();
+    assertEquals("[latest resend]", listener.received.toString());
+    registry.flush();
+    assertEquals("[latest resend, latest again]", listener.received.toString());
+  }
+
+  @Test
+  public void testDeferredEventsAreDroppedWhenTheRoundEnds() {
+    registry.send(LATEST, "1");
+    registry.send(COALESCED, "a", 1);
+    registry.send(QUEUED, "1");
+    registry.send(EventKey.ROUND_ENDED);
+    registry.flush();
+    assertEquals(0, listener.received.size());
+    registry.send(QUEUED, "2");
+    registry.send(COALESCED, "a", 2);
+    registry.flush();
+    assertEquals("[queued 2, a2]", listener.received.toString());
+  }
+
+  @Test
+  public void testUnregisterRemovesOnlyTheGivenListener() {
+    Listener other = new Listener();
+    other.registry = registry;
+    registry.register(other);
+    registry.unregister(new Listener());
+    registry.send(QUEUED, "1");
+    registry.flush();
+    assertEquals("[queued 1]", listener.received.toString());
+    assertEquals("[queued 1]", other.received.toString());
+    registry.unregister(listener);
+    registry.send(QUEUED, "2");
+    registry.flush();
+    assertEquals("[queued 1]", listener.received.toString());
+    assertEquals("[queued 1, queued 2]", other.received.toString());
+  }
+
+  @Test
+  public void testRoundScopedListenersAreUnregisteredWhenTheRoundEnds() {
+    Listener scoped = new Listener();
+    scoped.registry = registry;
+    registry.registerUntilRoundEnds(scoped);
+    registry.send(QUEUED, "1");
+    registry.flush();
+    registry.send(EventKey.ROUND_ENDED);
+    registry.send(QUEUED, "2");
+    registry.flush();
+    assertEquals("[queued 1]", scoped.received.toString());
+    assertEquals("[queued 1, queued 2]", listener.received.toString());
+
+    registry.registerUntilRoundEnds(scoped);
+    registry.send(QUEUED, "3");
+    registry.flush();
+    registry.send(EventKey.ROUND_ENDED);
+    registry.send(QUEUED, "4");
+    registry.flush();
+    assertEquals("[queued 1, queued 3]", scoped.received.toString());
+  }
+
+  @Test
+  public void testDeferredEventsAreDroppedOnEveryRoundEndWithRoundScopedListeners() {
+    Listener scoped = new Listener();
+    scoped.registry = registry;
+    registry.registerUntilRoundEnds(scoped);
+    for (int round = 1; round <= 3; round++) {
+      registry.send(QUEUED, "stale");
+      registry.send(EventKey.ROUND_ENDED);
+      registry.flush();
+      registry.flush();
+    }
+    assertEquals(0, listener.received.size());
+    assertEquals(0, scoped.received.size());
+  }
+
+}
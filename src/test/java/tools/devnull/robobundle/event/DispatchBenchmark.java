@@ -0,0 +1,155 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.event;
+
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Stubs;
+import tools.devnull.robobundle.annotation.When;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the cost of dispatching <code>ENEMY_SCANNED</code> the way {@link
+ * tools.devnull.robobundle.BaseBot} does (three sends with different payload types per
+ * scan) against the reflective dispatch used before the per-signature cache.
+ * <p/>
+ * Run with <code>java -cp target/classes:target/test-classes:robocode.jar
+ * tools.devnull.robobundle.event.DispatchBenchmark</code>.
+ *
+ * @author Marcelo Guimarães
+ */
+public class DispatchBenchmark {
+
+  private static final int LISTENERS = 8;
+  private static final int SCANS = 2000000;
+  private static final int ROUNDS = 5;
+
+  public static class StringListener {
+    public long calls;
+
+    @When(Events.ENEMY_SCANNED)
+    public void onString(String event) {
+      calls++;
+    }
+
+    @When(Events.ENEMY_SCANNED)
+    public void onInteger(Integer event) {
+      calls++;
+    }
+  }
+
+  public static class LongListener {
+    public long calls;
+
+    @When(Events.ENEMY_SCANNED)
+    public void onLong(Long event) {
+      calls++;
+    }
+
+    @When(Events.ENEMY_SCANNED)
+    public void onDouble(Double event) {
+      calls++;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Bot bot = Stubs.stub(Bot.class).create();
+    DefaultEventRegistry registry = new DefaultEventRegistry(bot).compileListeners();
+    ReflectiveRegistry baseline = new ReflectiveRegistry();
+    for (int i = 0; i < LISTENERS / 2; i++) {
+      Object first = new StringListener();
+      Object second = new LongListener();
+      registry.register(first);
+      registry.register(second);
+      baseline.register(first);
+      baseline.register(second);
+    }
+    String string = "enemy";
+    Integer integer = 1;
+    Long number = 2L;
+    for (int round = 1; round <= ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < SCANS; i++) {
+        baseline.send(Events.ENEMY_SCANNED, string);
+        baseline.send(Events.ENEMY_SCANNED, integer);
+        baseline.send(Events.ENEMY_SCANNED, number);
+      }
+      long reflective = System.nanoTime() - start;
+      start = System.nanoTime();
+      for (int i = 0; i < SCANS; i++) {
+        registry.send(EventKey.ENEMY_SCANNED, string);
+        registry.send(EventKey.ENEMY_SCANNED, integer);
+        registry.send(EventKey.ENEMY_SCANNED, number);
+      }
+      long cached = System.nanoTime() - start;
+      System.out.printf("round %d: reflective %.1f ns/scan, registry %.1f ns/scan%n",
+        round, reflective / (double) SCANS, cached / (double) SCANS);
+    }
+  }
+
+  // the dispatch of the registry before the cache: every listener method is checked
+  // against the arguments and invoked through reflection
+  private static class ReflectiveRegistry {
+
+    private final Map<String, List<Object[]>> mappings = new HashMap<String, List<Object[]>>();
+
+    void register(Object listener) {
+      for (Method method : listener.getClass().getMethods()) {
+        if (method.isAnnotationPresent(When.class)) {
+          for (String eventName : method.getAnnotation(When.class).value()) {
+            if (!mappings.containsKey(eventName)) {
+              mappings.put(eventName, new ArrayList<Object[]>());
+            }
+            mappings.get(eventName).add(new Object[]{listener, method});
+          }
+        }
+      }
+    }
+
+    void send(String eventName, Object... args) throws Exception {
+      for (Object[] mapping : mappings.get(eventName)) {
+        Method method = (Method) mapping[1];
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        boolean accepts = true;
+        if (args.length == parameterTypes.length) {
+          for (int i = 0; i < parameterTypes.length; i++) {
+            if (!parameterTypes[i].isAssignableFrom(args[i].getClass())) {
+              accepts = false;
+              break;
+            }
+          }
+        }
+        if (accepts) {
+          method.invoke(mapping[0], parameterTypes.length == 0 ? null : args);
+        }
+      }
+    }
+
+  }
+
+}
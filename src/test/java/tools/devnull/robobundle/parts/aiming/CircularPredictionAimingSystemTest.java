@@ -0,0 +1,248 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.parts.aiming;
+
+import org.junit.Before;
+import org.junit.Test;
+import robocode.Rules;
+import tools.devnull.robobundle.BattleField;
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Enemy;
+import tools.devnull.robobundle.Field;
+import tools.devnull.robobundle.Stubs;
+import tools.devnull.robobundle.calc.Angle;
+import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.event.EnemyScannedEvent;
+import tools.devnull.robobundle.parts.Gun;
+import tools.devnull.robobundle.parts.Radar;
+import tools.devnull.robobundle.plugin.EnemyTracker;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** @author Marcelo Guimarães */
+public class CircularPredictionAimingSystemTest {
+
+  private static final double DELTA = 1e-6;
+  private static final double WALL_MARGIN = 18;
+
+  private final Field field = new BattleField(800, 600);
+  private final Random random = new Random(42);
+
+  private Point botLocation;
+  private double power;
+  private Enemy target;
+  private Point aimed;
+  private Bot bot;
+  private EnemyTracker tracker;
+  private CircularPredictionAimingSystem aiming;
+
+  // the movement of the simulated target
+  private double x;
+  private double y;
+  private double heading;
+  private double velocity;
+  private boolean stopped;
+  private long time;
+
+  @Before
+  public void setUp() {
+    Radar radar = Stubs.stub(Radar.class)
+      .with("hasTargetSet", true)
+      .with("target", (Stubs.Answer) args -> target)
+      .with("battleField", field)
+      .create();
+    Gun gun = Stubs.stub(Gun.class)
+      .with("power", (Stubs.Answer) args -> power)
+      .with("aimTo", (Stubs.Answer) args -> {
+        aimed = (Point) args[0];
+        return null;
+      })
+      .create();
+    bot = Stubs.stub(Bot.class)
+      .with("radar", radar)
+      .with("gun", gun)
+      .with("location", (Stubs.Answer) args -> botLocation)
+      .create();
+    tracker = new EnemyTracker(bot);
+    aiming = new CircularPredictionAimingSystem(bot, tracker);
+  }
+
+  // moves the target one tick the way the game does: turn, accelerate and then move
+  private void tick(double turnRate, double acceleration) {
+    heading += turnRate;
+    if (stopped) {
+      time++;
+      return;
+    }
+    if (velocity * acceleration < 0) {
+      // a decelerating target stops instead of reversing
+      double decelerated = velocity + acceleration;
+      stopped = decelerated * velocity <= 0;
+      velocity = stopped ? 0 : decelerated;
+    } else {
+      velocity = Math.max(-Rules.MAX_VELOCITY,
+        Math.min(Rules.MAX_VELOCITY, velocity + acceleration));
+    }
+    x += Math.sin(heading) * velocity;
+    y += Math.cos(heading) * velocity;
+    time++;
+  }
+
+  private void scan() {
+    target = Stubs.stub(Enemy.class)
+      .with("name", "target")
+      .with("location", new Point(x, y))
+      .with("heading", new Angle(heading))
+      .with("velocity", velocity)
+      .with("when", time)
+      .create();
+    tracker.registerEnemy(new EnemyScannedEvent(target));
+  }
+
+  // the target keeps the turn rate and acceleration, one tick at a time, until the bullet
+  // reaches it or it hits a wall
+  private Point stepped(double turnRate, double acceleration) {
+    double bulletSpeed = Rules.getBulletSpeed(power);
+    double minX = WALL_MARGIN;
+    double minY = WALL_MARGIN;
+    double maxX = field.width() - WALL_MARGIN;
+    double maxY = field.height() - WALL_MARGIN;
+    double ticks = 0;
+    while ((++ticks) * bulletSpeed < botLocation.bearingTo(new Point(x, y)).distance()) {
+      tick(turnRate, acceleration);
+      if (x < minX || y < minY || x > maxX || y > maxY) {
+        x = Math.max(minX, Math.min(maxX, x));
+        y = Math.max(minY, Math.min(maxY, y));
+        break;
+      }
+    }
+    return new Point(x, y);
+  }
+
+  private void start(double startVelocity) {
+    botLocation = new Point(18 + random.nextDouble() * 764, 18 + random.nextDouble() * 564);
+    power = Rules.MIN_BULLET_POWER
+      + random.nextDouble() * (Rules.MAX_BULLET_POWER - Rules.MIN_BULLET_POWER);
+    x = 100 + random.nextDouble() * 600;
+    y = 100 + random.nextDouble() * 400;
+    heading = random.nextDouble() * 2 * Math.PI;
+    velocity = startVelocity;
+    stopped = false;
+    time = 100;
+  }
+
+  // scans the target for four ticks with the given movement and compares the aim with
+  // the stepped path
+  private void assertCircularAim(double turnRate, double acceleration) {
+    scan();
+    for (int i = 0; i < 3; i++) {
+      tick(turnRate, acceleration);
+      scan();
+    }
+    aiming.execute();
+    Point expected = stepped(turnRate, acceleration);
+    String message = "turn " + turnRate + " acceleration " + acceleration;
+    assertEquals(message, expected.x(), aimed.x(), DELTA);
+    assertEquals(message, expected.y(), aimed.y(), DELTA);
+  }
+
+  private double randomTurnRate() {
+    return (random.nextDouble() * 2 - 1) * Rules.MAX_TURN_RATE_RADIANS;
+  }
+
+  @Test
+  public void testAimFollowsATargetMovingInArcs() {
+    for (int i = 0; i < 5000; i++) {
+      start(random.nextDouble() * 16 - 8);
+      assertCircularAim(randomTurnRate(), 0);
+    }
+  }
+
+  @Test
+  public void testAimFollowsAnAcceleratingTarget() {
+    for (int i = 0; i < 5000; i++) {
+      double direction = random.nextBoolean() ? 1 : -1;
+      start(direction * random.nextDouble() * 5);
+      assertCircularAim(randomTurnRate(), direction * Rules.ACCELERATION);
+    }
+  }
+
+  @Test
+  public void testAimStopsADeceleratingTarget() {
+    for (int i = 0; i < 5000; i++) {
+      double direction = random.nextBoolean() ? 1 : -1;
+      start(direction * (6 + random.nextDouble() * 2));
+      assertCircularAim(randomTurnRate(), -direction * Rules.DECELERATION);
+    }
+  }
+
+  @Test
+  public void testTurnRateIsClampedToTheGameLimit() {
+    for (int i = 0; i < 1000; i++) {
+      start(random.nextDouble() * 16 - 8);
+      double turnRate = (random.nextBoolean() ? 1 : -1) * 0.5;
+      scan();
+      for (int j = 0; j < 3; j++) {
+        tick(turnRate, 0);
+        scan();
+      }
+      aiming.execute();
+      Point expected = stepped(Math.signum(turnRate) * Rules.MAX_TURN_RATE_RADIANS, 0);
+      assertEquals(expected.x(), aimed.x(), DELTA);
+      assertEquals(expected.y(), aimed.y(), DELTA);
+    }
+  }
+
+  @Test
+  public void testOldScansAreIgnored() {
+    for (int i = 0; i < 1000; i++) {
+      start(random.nextDouble() * 16 - 8);
+      scan();
+      // a turn that happened before a long gap without scans
+      tick(randomTurnRate(), 0);
+      time += 30;
+      scan();
+      aiming.execute();
+      Point expected = stepped(0, 0);
+      assertEquals(expected.x(), aimed.x(), DELTA);
+      assertEquals(expected.y(), aimed.y(), DELTA);
+    }
+  }
+
+  @Test
+  public void testSingleScanIsAimedInAStraightLine() {
+    start(8);
+    scan();
+    aiming.execute();
+    Point expected = stepped(0, 0);
+    assertEquals(expected.x(), aimed.x(), DELTA);
+    assertEquals(expected.y(), aimed.y(), DELTA);
+    assertTrue(aimed.x() >= WALL_MARGIN && aimed.x() <= field.width() - WALL_MARGIN);
+    assertTrue(aimed.y() >= WALL_MARGIN && aimed.y() <= field.height() - WALL_MARGIN);
+  }
+
+}
@@ -0,0 +1,141 @@
+/************************************************************************************
+ * The MIT License                                                                  *
+ *                                                                                  *
+ * Copyright (c) 2013 Marcelo Guimarães <ataxexe at gmail dot com>                  *
+ * -------------------------------------------------------------------------------- *
+ * Permission  is hereby granted, free of charge, to any person obtaining a copy of *
+ * this  software  and  associated documentation files (the "Software"), to deal in *
+ * the  Software  without  restriction,  including without limitation the rights to *
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of *
+ * the  Software, and to permit persons to whom the Software is furnished to do so, *
+ * subject to the following conditions:                                             *
+ *                                                                                  *
+ * The  above  copyright notice and this permission notice shall be included in all *
+ * copies or substantial portions of the Software.                                  *
+ *                            --------------------------                            *
+ * THE  SOFTWARE  IS  PROVIDED  "AS  IS",  WITHOUT WARRANTY OF ANY KIND, EXPRESS OR *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS *
+ * FOR  A  PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR *
+ * COPYRIGHT  HOLDERS  BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER *
+ * IN  AN  ACTION  OF  CONTRACT,  TORT  OR  OTHERWISE,  ARISING  FROM, OUT OF OR IN *
+ * CONNECTION  WITH  THE  SOFTWARE  OR  THE  USE OR OTHER DEALINGS IN THE SOFTWARE. *
+ ************************************************************************************/
+
+package tools.devnull.robobundle.parts.movement;
+
+import org.junit.Before;
+import org.junit.Test;
+import tools.devnull.robobundle.BattleField;
+import tools.devnull.robobundle.Bot;
+import tools.devnull.robobundle.Field;
+import tools.devnull.robobundle.Stubs;
+import tools.devnull.robobundle.calc.Angle;
+import tools.devnull.robobundle.calc.Point;
+import tools.devnull.robobundle.parts.MovingSystem;
+import tools.devnull.robobundle.parts.Radar;
+import robocode.util.Utils;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/** @author Marcelo Guimarães */
+public class WallSmoothingMovingSystemTest {
+
+  private static final double STICK = 160;
+  private static final double MARGIN = 20;
+  private static final double TOLERANCE = 1e-6;
+
+  private final Field field = new BattleField(800, 600);
+  private final Random random = new Random(42);
+  private WallSmoothingMovingSystem smoothing;
+
+  @Before
+  public void setUp() {
+    Radar radar = Stubs.stub(Radar.class).with("battleField", field).create();
+    Bot bot = Stubs.stub(Bot.class)
+      .with("radar", radar)
+      .with("plug", (Stubs.Answer) args -> args[0])
+      .create();
+    smoothing = new WallSmoothingMovingSystem(bot, Stubs.stub(MovingSystem.class).create())
+      .stick(STICK)
+      .margin(MARGIN);
+  }
+
+  private boolean fits(Point location, double heading, double tolerance) {
+    double x = location.x() + Math.sin(heading) * STICK;
+    double y = location.y() + Math.cos(heading) * STICK;
+    return x >= MARGIN - tolerance && x <= field.width() - MARGIN + tolerance
+      && y >= MARGIN - tolerance && y <= field.height() - MARGIN + tolerance;
+  }
+
+  // the smallest rotation that fits, searched in small steps
+  private double smallestRotation(Point location, double heading) {
+    for (double rotation = 0; rotation <= Math.PI; rotation += 1e-4) {
+      if (fits(location, heading + rotation, 0) || fits(location, heading - rotation, 0)) {
+        return rotation;
+      }
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  private void assertSmoothed(Point location) {
+    for (int i = 0; i < 200; i++) {
+      Angle heading = new Angle(random.nextDouble() * 4 * Math.PI - 2 * Math.PI);
+      Angle filtered = smoothing.filter(location, heading);
+      String message = location + " " + heading;
+      assertTrue(message + " -> " + filtered, fits(location, filtered.radians(), TOLERANCE));
+      double rotation = Math.abs(Utils.normalRelativeAngle(filtered.radians() - heading.radians()));
+      assertEquals(message, smallestRotation(location, heading.radians()), rotation, 1e-4);
+    }
+  }
+
+  @Test
+  public void testStickStaysInsideTheFieldNearEachWall() {
+    for (int i = 0; i < 20; i++) {
+      double x = 18 + random.nextDouble() * 764;
+      double y = 18 + random.nextDouble() * 564;
+      double near = 18 + random.nextDouble() * 150;
+      assertSmoothed(new Point(near, y));
+      assertSmoothed(new Point(800 - near, y));
+      assertSmoothed(new Point(x, near));
+      assertSmoothed(new Point(x, 600 - near));
+    }
+  }
+
+  @Test
+  public void testStickStaysInsideTheFieldNearEachCorner() {
+    for (int i = 0; i < 20; i++) {
+      double nearX = 18 + random.nextDouble() * 150;
+      double nearY = 18 + random.nextDouble() * 150;
+      assertSmoothed(new Point(nearX, nearY));
+      assertSmoothed(new Point(800 - nearX, nearY));
+      assertSmoothed(new Point(nearX, 600 - nearY));
+      assertSmoothed(new Point(800 - nearX, 600 - nearY));
+    }
+    assertSmoothed(new Point(18, 18));
+    assertSmoothed(new Point(782, 582));
+  }
+
+  @Test
+  public void testHeadingIsKeptWhenTheStickFits() {
+    Point center = new Point(400, 300);
+    for (int i = 0; i < 100; i++) {
+      Angle heading = new Angle(random.nextDouble() * 2 * Math.PI);
+      assertSame(heading, smoothing.filter(center, heading));
+    }
+  }
+
+  @Test
+  public void testHeadingTurnsToTheClosestSide() {
+    // heading to the west wall, slightly to the north: turns right (clockwise)
+    Point location = new Point(60, 300);
+    Angle filtered = smoothing.filter(location, new Angle(-Math.PI / 2 + 0.1));
+    assertTrue(filtered.radians() > -Math.PI / 2 + 0.1);
+    filtered = smoothing.filter(location, new Angle(-Math.PI / 2 - 0.1));
+    assertTrue(filtered.radians() < -Math.PI / 2 - 0.1);
+  }
+
+}